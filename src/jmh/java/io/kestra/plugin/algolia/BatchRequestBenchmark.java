@@ -0,0 +1,110 @@
+package io.kestra.plugin.algolia;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.algolia.model.search.Action;
+import com.algolia.model.search.BatchRequest;
+import com.algolia.model.search.BatchResponse;
+import com.algolia.model.search.BatchWriteParams;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * Hot paths of the write tasks: building {@link BatchRequest} from rendered records, measuring them for the byte
+ * budget, and serializing a chunk the way the Algolia client does before sending it.
+ * <p>
+ * Run with {@code ./gradlew jmh}; the gc profiler reports the bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BatchRequestBenchmark {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+    private static final int CHUNK_SIZE = 1000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int records;
+
+    private List<Map<String, Object>> objects;
+    private List<String> objectIds;
+    private List<BatchRequest> requests;
+    private BatchResponse response;
+
+    @Setup
+    public void setup() {
+        objects = new ArrayList<>(records);
+        objectIds = new ArrayList<>(records);
+
+        for (int i = 0; i < records; i++) {
+            String objectId = "prod_" + i;
+            objectIds.add(objectId);
+            objects.add(Map.of(
+                "objectID", objectId,
+                "name", "Product " + i,
+                "description", "A comfortable cotton t-shirt available in many colors and sizes, reference " + i + ".",
+                "price", 19.99 + i % 100,
+                "tags", List.of("clothing", "t-shirt", "summer"),
+                "brand", Map.of("id", i % 50, "name", "Brand " + i % 50)
+            ));
+        }
+
+        requests = objects.stream()
+            .map(object -> new BatchRequest().setAction(Action.ADD_OBJECT).setBody(object))
+            .toList();
+
+        response = new BatchResponse().setTaskID(42L).setObjectIDs(objectIds);
+    }
+
+    @Benchmark
+    public void addObjectRequests(Blackhole blackhole) {
+        for (Map<String, Object> object : objects) {
+            blackhole.consume(new BatchRequest().setAction(Action.ADD_OBJECT).setBody(object));
+        }
+    }
+
+    @Benchmark
+    public void deleteObjectRequests(Blackhole blackhole) {
+        for (String objectId : objectIds) {
+            blackhole.consume(new BatchRequest().setAction(Action.DELETE_OBJECT).setBody(Map.of("objectID", objectId)));
+        }
+    }
+
+    @Benchmark
+    public long measureRequests() throws Exception {
+        long total = 0;
+        for (BatchRequest request : requests) {
+            total += BatchWriter.requestBytes(request, BatchWriter.bodyBytes(request));
+        }
+
+        return total;
+    }
+
+    @Benchmark
+    public long serializeChunks() throws Exception {
+        long total = 0;
+        for (int i = 0; i < requests.size(); i += CHUNK_SIZE) {
+            BatchWriteParams params = new BatchWriteParams().setRequests(requests.subList(i, Math.min(i + CHUNK_SIZE, requests.size())));
+            total += MAPPER.writeValueAsBytes(params).length;
+        }
+
+        return total;
+    }
+
+    /**
+     * Conversion of a whole batch response into a map, as the single-batch {@link Index} output used to do.
+     */
+    @Benchmark
+    public Map<String, Object> batchResponseToMap() {
+        return MAPPER.convertValue(response, new TypeReference<>() {
+        });
+    }
+}
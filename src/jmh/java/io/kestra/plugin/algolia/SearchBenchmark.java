@@ -0,0 +1,84 @@
+package io.kestra.plugin.algolia;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.algolia.model.search.SearchParams;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * Hot paths of {@link Search}: converting the rendered params to {@link SearchParams}, reading hits as
+ * {@link ObjectNode}, and writing them to an ION stream as the {@code STORE} fetch type does.
+ * <p>
+ * Run with {@code ./gradlew jmh}; the gc profiler reports the bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+
+    @Param({"1000", "100000", "1000000"})
+    private int hits;
+
+    private Map<String, Object> params;
+    private List<byte[]> rawHits;
+    private List<ObjectNode> nodes;
+
+    @Setup
+    public void setup() throws Exception {
+        params = Map.of(
+            "query", "t-shirt",
+            "hitsPerPage", 1000,
+            "filters", "brand.id:12 AND price < 50",
+            "facets", List.of("brand.name", "tags"),
+            "attributesToRetrieve", List.of("objectID", "name", "price")
+        );
+
+        rawHits = new ArrayList<>(hits);
+        nodes = new ArrayList<>(hits);
+        for (int i = 0; i < hits; i++) {
+            byte[] raw = MAPPER.writeValueAsBytes(Map.of(
+                "objectID", "prod_" + i,
+                "name", "Product " + i,
+                "price", 19.99 + i % 100,
+                "_highlightResult", Map.of("name", Map.of("value", "<em>Product</em> " + i, "matchLevel", "full"))
+            ));
+
+            rawHits.add(raw);
+            nodes.add((ObjectNode) MAPPER.readTree(raw));
+        }
+    }
+
+    @Benchmark
+    public SearchParams searchParams() {
+        return MAPPER.convertValue(params, SearchParams.class);
+    }
+
+    @Benchmark
+    public void readHits(Blackhole blackhole) throws Exception {
+        for (byte[] raw : rawHits) {
+            blackhole.consume(MAPPER.readValue(raw, ObjectNode.class));
+        }
+    }
+
+    @Benchmark
+    public void storeHits() throws Exception {
+        try (OutputStream output = OutputStream.nullOutputStream()) {
+            for (ObjectNode node : nodes) {
+                FileSerde.write(output, node);
+            }
+        }
+    }
+}
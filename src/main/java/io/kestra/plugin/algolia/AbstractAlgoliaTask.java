@@ -1,17 +1,25 @@
 package io.kestra.plugin.algolia;
 
-import com.algolia.api.SearchClient;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.models.tasks.Task;
 import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import lombok.extern.jackson.Jacksonized;
 import io.kestra.core.models.annotations.PluginProperty;
 
 @SuperBuilder
@@ -34,9 +42,107 @@ public abstract class AbstractAlgoliaTask<T extends io.kestra.core.models.tasks.
     @PluginProperty(group = "main", secret = true)
     protected Property<String> apiKey;
 
-    protected SearchClient client(RunContext runContext) throws Exception {
+    @Schema(
+        title = "Custom API hosts",
+        description = "Base URLs (for example `https://my-proxy.example.com` or `http://localhost:8080`) used instead of the default Algolia hosts for both reads and writes, e.g. to go through a proxy or to target a local stand-in server in tests."
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<List<String>> hosts;
+
+    @Schema(
+        title = "HTTP client options",
+        description = "Timeouts and request compression of the HTTP client; Algolia client defaults apply to the options left unset."
+    )
+    @PluginProperty(group = "advanced")
+    protected ClientOptions clientOptions;
+
+    /**
+     * Borrow a {@link com.algolia.api.SearchClient} shared by every task of this worker using the same credentials.
+     * The returned lease must be closed, which gives the client back to the cache without closing it.
+     */
+    protected AlgoliaClientCache.Lease client(RunContext runContext) throws Exception {
         String rApplicationId = runContext.render(applicationId).as(String.class).orElseThrow();
         String rApiKeyValue = runContext.render(apiKey).as(String.class).orElseThrow();
-        return new SearchClient(rApplicationId, rApiKeyValue);
+        return AlgoliaClientCache.lease(rApplicationId, rApiKeyValue, ClientOptions.settings(runContext, hosts, clientOptions));
+    }
+
+    /**
+     * Give the rows of {@code from} read lazily if it is set, otherwise the rendered {@code inline} list.
+     */
+    protected <R> R rows(
+        RunContext runContext,
+        Property<? extends List<?>> inline,
+        Class<?> type,
+        Property<String> from,
+        RecordsFunction<R> function
+    ) throws Exception {
+        if (from != null) {
+            URI rFrom = new URI(runContext.render(from).as(String.class).orElseThrow());
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(rFrom)), FileSerde.BUFFER_SIZE)) {
+                return function.apply(FileSerde.readAll(reader).toIterable());
+            }
+        }
+
+        return function.apply(runContext.render(inline).asList(type));
+    }
+
+    /**
+     * Read an objectID from a row that is either the ID itself or a record holding it.
+     */
+    protected static String objectId(Object row) {
+        if (row instanceof Map<?, ?> map && map.get("objectID") != null) {
+            return map.get("objectID").toString();
+        }
+
+        if (row instanceof String || row instanceof Number) {
+            return row.toString();
+        }
+
+        throw new IllegalArgumentException("Invalid row, expected an objectID but got '" + row + "'");
+    }
+
+    @FunctionalInterface
+    protected interface RecordsFunction<R> {
+        R apply(Iterable<?> rows) throws Exception;
+    }
+
+    @Builder
+    @Getter
+    @Jacksonized
+    public static class ClientOptions {
+        @Schema(title = "Timeout to open a connection")
+        private Property<Duration> connectTimeout;
+
+        @Schema(title = "Timeout of read requests such as searches")
+        private Property<Duration> readTimeout;
+
+        @Schema(
+            title = "Timeout of write requests such as batches",
+            description = "Raise it when sending large batches over a slow link."
+        )
+        private Property<Duration> writeTimeout;
+
+        @Schema(
+            title = "Compress request bodies with gzip",
+            description = "Record payloads are usually highly compressible JSON, so this cuts upload time on bandwidth-limited links at the cost of some CPU."
+        )
+        @Builder.Default
+        private Property<Boolean> gzip = Property.ofValue(false);
+
+        static AlgoliaClientCache.Settings settings(RunContext runContext, Property<List<String>> hosts, ClientOptions options) throws Exception {
+            List<String> rHosts = runContext.render(hosts).asList(String.class);
+            if (options == null) {
+                return new AlgoliaClientCache.Settings(rHosts, null, null, null, false);
+            }
+
+            return new AlgoliaClientCache.Settings(
+                rHosts,
+                runContext.render(options.connectTimeout).as(Duration.class).orElse(null),
+                runContext.render(options.readTimeout).as(Duration.class).orElse(null),
+                runContext.render(options.writeTimeout).as(Duration.class).orElse(null),
+                runContext.render(options.gzip).as(Boolean.class).orElse(false)
+            );
+        }
     }
 }
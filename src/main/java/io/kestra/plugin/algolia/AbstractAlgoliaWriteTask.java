@@ -0,0 +1,290 @@
+package io.kestra.plugin.algolia;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.algolia.api.SearchClient;
+
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import lombok.extern.jackson.Jacksonized;
+import io.kestra.core.models.annotations.PluginProperty;
+
+@SuperBuilder
+@Getter
+@NoArgsConstructor
+public abstract class AbstractAlgoliaWriteTask<T extends io.kestra.core.models.tasks.Output> extends AbstractAlgoliaTask<T> {
+    @Schema(
+        title = "Records per batch request",
+        description = "Maximum number of records sent in a single Algolia batch request."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> chunkSize = Property.ofValue(1000);
+
+    @Schema(
+        title = "Concurrent batch requests",
+        description = "Maximum number of batch requests in flight at the same time. Chunks touching the same objectID are still sent one after the other, so the order of operations per record is kept."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> concurrency = Property.ofValue(4);
+
+    @Schema(
+        title = "Maximum batch request size in bytes",
+        description = "A chunk is sent as soon as adding the next record would push its serialized size over this budget, even if it holds fewer than `chunkSize` records. Defaults to 10 MB."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Long> maxBatchBytes = Property.ofValue(10L * 1024 * 1024);
+
+    @Schema(
+        title = "Maximum record size in bytes",
+        description = "Records whose serialized size is over this limit are detected before being sent and handled according to `onOversizeRecord`. Match it to the record size limit of your Algolia plan; defaults to 100 KB."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Long> maxRecordBytes = Property.ofValue(100L * 1024);
+
+    @Schema(
+        title = "Behavior for oversize records",
+        description = """
+            What to do with a record over `maxRecordBytes`:
+            - `FAIL`: fail the task before sending the chunk that would contain it.
+            - `SKIP`: log a warning and skip the record.
+            - `STORE`: skip the record and write it to an internal storage file exposed in the outputs.
+            """
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<OversizeRecordBehavior> onOversizeRecord = Property.ofValue(OversizeRecordBehavior.FAIL);
+
+    @Schema(
+        title = "Wait for records to be indexed",
+        description = "If `true`, the task only ends once Algolia has published every batch, so the next tasks of the flow read up-to-date data. Task statuses are polled with an adaptive backoff while the remaining batches are still being sent."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Boolean> waitForIndexing = Property.ofValue(false);
+
+    @Schema(
+        title = "Maximum time to wait for indexing",
+        description = "Maximum time to wait, once every batch has been sent, for Algolia to publish them when `waitForIndexing` is enabled."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Duration> waitTimeout = Property.ofValue(Duration.ofMinutes(10));
+
+    @Schema(
+        title = "Maximum retries per batch",
+        description = "How many times a batch rejected by Algolia with a 429 or 5xx status, or that could not reach any host, is retried with a jittered exponential backoff (from 500ms up to 30s) before the task fails. Only the failing chunk is retried."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> maxRetries = Property.ofValue(5);
+
+    @Schema(
+        title = "Maximum records per second",
+        description = "Client-side limit on the records sent per second, shared by every task of the worker using the same application ID and the same limit."
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> maxRecordsPerSecond;
+
+    @Schema(
+        title = "Maximum batch requests per second",
+        description = "Client-side limit on the batch requests sent per second, shared by every task of the worker using the same application ID and the same limit."
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> maxRequestsPerSecond;
+
+    protected BatchWriter writer(RunContext runContext, SearchClient client, String indexName) throws Exception {
+        return new BatchWriter(runContext, client, indexName, this.writerOptions(runContext).build());
+    }
+
+    /**
+     * Writer sending the same requests to {@code indexName} through {@code client}, the primary destination, and to every
+     * target; each target borrows its own client.
+     */
+    protected FanOutWriter writer(RunContext runContext, SearchClient client, String indexName, List<Target> targets) throws Exception {
+        String rApplicationId = runContext.render(applicationId).as(String.class).orElseThrow();
+        String rApiKey = runContext.render(apiKey).as(String.class).orElseThrow();
+
+        List<FanOutWriter.Destination> destinations = new ArrayList<>();
+        try {
+            destinations.add(new FanOutWriter.Destination(rApplicationId, indexName, this.writer(runContext, client, indexName), null));
+
+            for (Target target : targets) {
+                String rTargetApplicationId = runContext.render(target.getApplicationId()).as(String.class).orElse(rApplicationId);
+                String rTargetApiKey = runContext.render(target.getApiKey()).as(String.class).orElse(rApiKey);
+                String rTargetIndexName = runContext.render(target.getIndexName()).as(String.class)
+                    .orElseThrow(() -> new IllegalArgumentException("Every target needs an 'indexName'"));
+
+                AlgoliaClientCache.Lease lease = AlgoliaClientCache.lease(
+                    rTargetApplicationId,
+                    rTargetApiKey,
+                    ClientOptions.settings(runContext, target.getHosts() != null ? target.getHosts() : hosts, clientOptions)
+                );
+                BatchWriter writer = new BatchWriter(runContext, lease.client(), rTargetIndexName, this.writerOptions(runContext, rTargetApplicationId).build());
+
+                destinations.add(new FanOutWriter.Destination(rTargetApplicationId, rTargetIndexName, writer, lease));
+            }
+        } catch (Exception e) {
+            new FanOutWriter(runContext, destinations).close();
+            throw e;
+        }
+
+        return new FanOutWriter(runContext, destinations);
+    }
+
+    /**
+     * Per-target outputs of a fan-out write, failing on a target error unless {@code ignoreErrors} is set.
+     */
+    protected static List<TargetOutput> targetOutputs(List<FanOutWriter.Outcome> outcomes, boolean ignoreErrors) throws Exception {
+        List<TargetOutput> outputs = new ArrayList<>();
+
+        // the first outcome is the primary index, reported by the task outputs themselves
+        for (FanOutWriter.Outcome outcome : outcomes.subList(1, outcomes.size())) {
+            if (outcome.error() != null && !ignoreErrors) {
+                throw new IllegalStateException(
+                    "Write to index '" + outcome.indexName() + "' of application '" + outcome.applicationId() + "' failed: " + outcome.error().getMessage(),
+                    outcome.error()
+                );
+            }
+
+            TargetOutput.TargetOutputBuilder output = TargetOutput.builder()
+                .applicationId(outcome.applicationId())
+                .indexName(outcome.indexName());
+
+            if (outcome.result() != null) {
+                output
+                    .count(outcome.result().count())
+                    .batches(outcome.result().taskIds().size())
+                    .taskIds(outcome.result().taskIds());
+            } else {
+                output.error(outcome.error().getMessage());
+            }
+
+            outputs.add(output.build());
+        }
+
+        return outputs;
+    }
+
+    protected BatchWriter.Options.OptionsBuilder writerOptions(RunContext runContext) throws Exception {
+        return this.writerOptions(runContext, runContext.render(applicationId).as(String.class).orElseThrow());
+    }
+
+    /**
+     * @param rApplicationId the application written to, whose rate limits are shared
+     */
+    protected BatchWriter.Options.OptionsBuilder writerOptions(RunContext runContext, String rApplicationId) throws Exception {
+        int rChunkSize = runContext.render(chunkSize).as(Integer.class).orElse(1000);
+        int rConcurrency = runContext.render(concurrency).as(Integer.class).orElse(4);
+
+        if (rChunkSize < 1 || rConcurrency < 1) {
+            throw new IllegalArgumentException("'chunkSize' and 'concurrency' must be greater than 0");
+        }
+
+        Integer rMaxRecordsPerSecond = runContext.render(maxRecordsPerSecond).as(Integer.class).orElse(null);
+        Integer rMaxRequestsPerSecond = runContext.render(maxRequestsPerSecond).as(Integer.class).orElse(null);
+
+        if ((rMaxRecordsPerSecond != null && rMaxRecordsPerSecond < 1) || (rMaxRequestsPerSecond != null && rMaxRequestsPerSecond < 1)) {
+            throw new IllegalArgumentException("'maxRecordsPerSecond' and 'maxRequestsPerSecond' must be greater than 0");
+        }
+
+        return BatchWriter.Options.builder()
+            .operation(this.getClass().getSimpleName().replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase())
+            .chunkSize(rChunkSize)
+            .concurrency(rConcurrency)
+            .maxBatchBytes(runContext.render(maxBatchBytes).as(Long.class).orElse(10L * 1024 * 1024))
+            .maxRecordBytes(runContext.render(maxRecordBytes).as(Long.class).orElse(100L * 1024))
+            .onOversizeRecord(runContext.render(onOversizeRecord).as(OversizeRecordBehavior.class).orElse(OversizeRecordBehavior.FAIL))
+            .waitForIndexing(runContext.render(waitForIndexing).as(Boolean.class).orElse(false))
+            .waitTimeout(runContext.render(waitTimeout).as(Duration.class).orElse(Duration.ofMinutes(10)))
+            .maxRetries(runContext.render(maxRetries).as(Integer.class).orElse(5))
+            .recordsLimiter(rMaxRecordsPerSecond != null ? TokenBucket.of(rApplicationId, "records", rMaxRecordsPerSecond) : null)
+            .requestsLimiter(rMaxRequestsPerSecond != null ? TokenBucket.of(rApplicationId, "requests", rMaxRequestsPerSecond) : null);
+    }
+
+    /**
+     * Give the records either rendered from an inline list or streamed lazily from an internal storage file.
+     */
+    protected <R> R records(
+        RunContext runContext,
+        Property<List<Map<String, Object>>> objects,
+        Property<String> from,
+        RecordsFunction<R> function
+    ) throws Exception {
+        if ((objects == null) == (from == null)) {
+            throw new IllegalArgumentException("Exactly one of 'objects' or 'from' must be set");
+        }
+
+        return this.rows(runContext, objects, Map.class, from, function);
+    }
+
+    @Builder
+    @Getter
+    @Jacksonized
+    public static class Target {
+        @Schema(
+            title = "Algolia Application ID",
+            description = "Defaults to the `applicationId` of the task."
+        )
+        private Property<String> applicationId;
+
+        @Schema(
+            title = "API Key",
+            description = "Defaults to the `apiKey` of the task."
+        )
+        @PluginProperty(secret = true)
+        private Property<String> apiKey;
+
+        @Schema(title = "Index name")
+        private Property<String> indexName;
+
+        @Schema(
+            title = "Custom API hosts",
+            description = "Defaults to the `hosts` of the task."
+        )
+        private Property<List<String>> hosts;
+    }
+
+    @Builder
+    @Getter
+    public static class TargetOutput {
+        @Schema(title = "Algolia Application ID")
+        private final String applicationId;
+
+        @Schema(title = "Index name")
+        private final String indexName;
+
+        @Schema(title = "Number of records sent")
+        private final Long count;
+
+        @Schema(title = "Number of batch requests")
+        private final Integer batches;
+
+        @Schema(title = "Batch task IDs")
+        private final List<Long> taskIds;
+
+        @Schema(
+            title = "Error message",
+            description = "Only set when the target failed and `ignoreTargetErrors` is enabled; no more records were sent to it after the failure."
+        )
+        private final String error;
+    }
+
+    public enum OversizeRecordBehavior {
+        FAIL,
+        SKIP,
+        STORE
+    }
+}
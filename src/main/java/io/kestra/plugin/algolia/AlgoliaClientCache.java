@@ -0,0 +1,218 @@
+package io.kestra.plugin.algolia;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.algolia.api.SearchClient;
+import com.algolia.config.CallType;
+import com.algolia.config.ClientOptions;
+import com.algolia.config.CompressionType;
+import com.algolia.config.Host;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Worker-wide cache of {@link SearchClient}, so that tasks running on the same worker reuse keep-alive connections and
+ * host failover state instead of building a new HTTP client on each execution.
+ * <p>
+ * Clients are keyed by application ID, a SHA-256 hash of the API key, so the key itself is never kept as a map key,
+ * and their HTTP {@link Settings}.
+ * Each use takes a {@link Lease}; a client is only closed once no lease holds it and it has been idle for
+ * {@link #IDLE_TIMEOUT}.
+ * <p>
+ * Kestra has no hook to tell a task plugin it is unloaded, so nothing here outlives its use: there is no shutdown
+ * hook, and the evictor thread is started by the first lease and stops once it has closed the last idle client. When
+ * the plugin is no longer used, the cache empties itself and nothing keeps its class loader reachable.
+ */
+@Slf4j
+final class AlgoliaClientCache {
+    static final Duration IDLE_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final Map<String, Entry> CLIENTS = new ConcurrentHashMap<>();
+
+    // running while the cache holds clients, guarded by the class lock
+    private static ScheduledExecutorService evictor;
+
+    private AlgoliaClientCache() {
+    }
+
+    static Lease lease(String applicationId, String apiKey, Settings settings) {
+        String key = applicationId + ":" + sha256(apiKey) + ":" + settings;
+
+        Entry entry = CLIENTS.compute(key, (k, existing) -> {
+            Entry current = existing != null ? existing : new Entry(create(applicationId, apiKey, settings));
+            current.leases++;
+            current.lastUsed = System.nanoTime();
+            return current;
+        });
+
+        startEvictor();
+
+        return new Lease(key, entry.client);
+    }
+
+    private static SearchClient create(String applicationId, String apiKey, Settings settings) {
+        ClientOptions.Builder options = ClientOptions.builder();
+
+        if (!settings.hosts().isEmpty()) {
+            options.setHosts(settings.hosts().stream()
+                .map(URI::create)
+                .map(uri -> new Host(
+                    uri.getHost(),
+                    EnumSet.of(CallType.READ, CallType.WRITE),
+                    uri.getScheme() != null ? uri.getScheme() : "https",
+                    uri.getPort() != -1 ? uri.getPort() : null
+                ))
+                .toList()
+            );
+        }
+
+        if (settings.connectTimeout() != null) {
+            options.setConnectTimeout(settings.connectTimeout());
+        }
+
+        if (settings.readTimeout() != null) {
+            options.setReadTimeout(settings.readTimeout());
+        }
+
+        if (settings.writeTimeout() != null) {
+            options.setWriteTimeout(settings.writeTimeout());
+        }
+
+        if (settings.gzip()) {
+            options.setCompressionType(CompressionType.GZIP);
+        }
+
+        return new SearchClient(applicationId, apiKey, options.build());
+    }
+
+    static void evictIdle(Duration idleTimeout) {
+        long now = System.nanoTime();
+
+        CLIENTS.keySet().forEach(key -> CLIENTS.computeIfPresent(key, (k, entry) -> {
+            if (entry.leases == 0 && now - entry.lastUsed >= idleTimeout.toNanos()) {
+                close(entry);
+                return null;
+            }
+
+            return entry;
+        }));
+
+        stopEvictorIfEmpty();
+    }
+
+    /**
+     * Close every client, leased or not, and stop the evictor.
+     */
+    static void closeAll() {
+        CLIENTS.keySet().forEach(key -> CLIENTS.computeIfPresent(key, (k, entry) -> {
+            close(entry);
+            return null;
+        }));
+
+        stopEvictorIfEmpty();
+    }
+
+    static synchronized boolean evicting() {
+        return evictor != null;
+    }
+
+    private static synchronized void startEvictor() {
+        if (evictor == null) {
+            evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "algolia-client-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            evictor.scheduleWithFixedDelay(() -> evictIdle(IDLE_TIMEOUT), 1, 1, TimeUnit.MINUTES);
+        }
+    }
+
+    // a lease adds its client before starting the evictor, so a client cached concurrently always keeps it running
+    private static synchronized void stopEvictorIfEmpty() {
+        if (evictor != null && CLIENTS.isEmpty()) {
+            evictor.shutdown();
+            evictor = null;
+        }
+    }
+
+    private static void release(String key) {
+        CLIENTS.computeIfPresent(key, (k, entry) -> {
+            entry.leases--;
+            entry.lastUsed = System.nanoTime();
+            return entry;
+        });
+    }
+
+    private static void close(Entry entry) {
+        try {
+            entry.client.close();
+        } catch (Exception e) {
+            log.warn("Unable to close Algolia client", e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * HTTP settings of a client; clients with different settings are cached separately.
+     *
+     * @param connectTimeout {@code null} for the Algolia client default, as for the other timeouts
+     */
+    record Settings(List<String> hosts, Duration connectTimeout, Duration readTimeout, Duration writeTimeout, boolean gzip) {
+    }
+
+    private static final class Entry {
+        private final SearchClient client;
+        private int leases = 0;
+        private long lastUsed;
+
+        private Entry(SearchClient client) {
+            this.client = client;
+        }
+    }
+
+    /**
+     * A shared client borrowed from the cache; closing the lease returns it without closing the client.
+     */
+    static final class Lease implements AutoCloseable {
+        private final String key;
+        private final SearchClient client;
+        private boolean released = false;
+
+        private Lease(String key, SearchClient client) {
+            this.key = key;
+            this.client = client;
+        }
+
+        SearchClient client() {
+            return client;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package io.kestra.plugin.algolia;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.algolia.api.SearchClient;
+import com.algolia.exceptions.AlgoliaApiException;
+import com.algolia.exceptions.AlgoliaRetryException;
+import com.algolia.model.search.BatchRequest;
+import com.algolia.model.search.BatchResponse;
+import com.algolia.model.search.BatchWriteParams;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+
+import lombok.Builder;
+
+/**
+ * Splits a stream of {@link BatchRequest} into chunks and sends them concurrently to a single index.
+ * <p>
+ * A chunk is cut when it reaches {@code chunkSize} requests or when the next request would push its serialized size
+ * over {@code maxBatchBytes}. Requests whose body alone exceeds {@code maxRecordBytes} are never sent: depending on
+ * {@code onOversizeRecord} they fail the task, are skipped, or are written to an internal storage file.
+ * <p>
+ * At most {@code concurrency} batch requests are in flight at any time; {@link #add(BatchRequest)} blocks when that
+ * limit is reached, so the caller never buffers more than {@code concurrency + 1} chunks.
+ * A chunk that contains an objectID still present in an in-flight chunk is only sent once that earlier chunk has been
+ * acknowledged, which keeps the order of operations per objectID.
+ * <p>
+ * With a {@link ImportCheckpoint}, each acknowledged chunk reports the number of requests added up to its last one,
+ * oversize records included, so the caller can map it back to its position in the source.
+ */
+class BatchWriter implements AutoCloseable {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+
+    // envelope added around each body: {"action":"...","body":...},
+    private static final int REQUEST_OVERHEAD = 24;
+
+    static final Duration RETRY_INITIAL_DELAY = Duration.ofMillis(500);
+    static final Duration RETRY_MAX_DELAY = Duration.ofSeconds(30);
+
+    private final RunContext runContext;
+    private final SearchClient client;
+    private final String indexName;
+    private final Options options;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore inFlight;
+    private final Map<String, CompletableFuture<Void>> pendingByObjectId = new ConcurrentHashMap<>();
+    private final List<CompletableFuture<Long>> batches = new ArrayList<>();
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong acknowledged = new AtomicLong();
+    private final AtomicLong acknowledgedRecords = new AtomicLong();
+    private final AtomicLong acknowledgedBytes = new AtomicLong();
+    private final Latencies latencies = new Latencies();
+    private final TaskWaiter waiter;
+
+    private List<BatchRequest> chunk;
+    private long chunkBytes = 0;
+    private long chunkEnd = 0;
+    private long position = 0;
+    private long count = 0;
+    private long bytes = 0;
+
+    private File oversizeFile;
+    private OutputStream oversizeOutput;
+    private long oversizeCount = 0;
+
+    private Duration waitDuration;
+    private boolean reported = false;
+
+    BatchWriter(RunContext runContext, SearchClient client, String indexName, Options options) {
+        this.runContext = runContext;
+        this.client = client;
+        this.indexName = indexName;
+        this.options = options;
+        this.inFlight = new Semaphore(options.concurrency());
+        this.chunk = new ArrayList<>(options.chunkSize());
+        this.waiter = options.waitForIndexing() ?
+            new TaskWaiter(client, indexName, options.concurrency(), options.waitTimeout()) :
+            null;
+    }
+
+    /**
+     * @return {@code false} if the request was not queued because it is oversize, i.e. skipped or stored
+     */
+    boolean add(BatchRequest request) throws Exception {
+        return this.add(request, bodyBytes(request));
+    }
+
+    /**
+     * Add a request whose body size was already measured with {@link #bodyBytes(BatchRequest)}.
+     */
+    boolean add(BatchRequest request, long size) throws Exception {
+        this.throwIfFailed();
+        position++;
+
+        if (size > options.maxRecordBytes()) {
+            this.oversize(request, size);
+            // the skipped record is handled as soon as the chunk before it is acknowledged
+            chunkEnd = position;
+            return false;
+        }
+
+        long requestBytes = requestBytes(request, size);
+        if (!chunk.isEmpty() && chunkBytes + requestBytes > options.maxBatchBytes()) {
+            this.flush();
+        }
+
+        chunk.add(request);
+        chunkEnd = position;
+        chunkBytes += requestBytes;
+        bytes += requestBytes;
+        count++;
+
+        if (chunk.size() >= options.chunkSize()) {
+            this.flush();
+        }
+
+        return true;
+    }
+
+    Result finish() throws Exception {
+        if (!chunk.isEmpty()) {
+            this.flush();
+        }
+
+        List<Long> taskIds = new ArrayList<>(batches.size());
+        for (CompletableFuture<Long> batch : batches) {
+            try {
+                Long taskId = batch.join();
+                if (taskId != null) {
+                    taskIds.add(taskId);
+                }
+            } catch (Exception e) {
+                // the root cause is kept in failure and rethrown below
+            }
+        }
+
+        this.throwIfFailed();
+
+        if (waiter != null) {
+            waitDuration = waiter.await();
+        }
+
+        URI oversizeUri = null;
+        if (oversizeOutput != null) {
+            oversizeOutput.close();
+            oversizeOutput = null;
+            oversizeUri = runContext.storage().putFile(oversizeFile);
+        }
+
+        return new Result(count, bytes, taskIds, retries.get(), oversizeCount, oversizeUri, waitDuration);
+    }
+
+    /**
+     * Report the metrics once, from the task thread closing the writer, as the run context is not meant to be used
+     * concurrently; a failed run reports what was acknowledged before the failure.
+     */
+    private void metrics() {
+        if (reported) {
+            return;
+        }
+        reported = true;
+
+        String[] tags = {"index", indexName, "operation", options.operation()};
+
+        runContext.metric(Counter.of("records", acknowledgedRecords.get(), tags));
+        runContext.metric(Counter.of("bytes", acknowledgedBytes.get(), tags));
+        runContext.metric(Counter.of("batches", acknowledged.get(), tags));
+        runContext.metric(Counter.of("retries", retries.get(), tags));
+
+        if (oversizeCount > 0) {
+            runContext.metric(Counter.of("oversize.records", oversizeCount, tags));
+        }
+
+        latencies.report(runContext, "batch.duration", tags);
+
+        if (waitDuration != null) {
+            runContext.metric(Timer.of("wait.duration", waitDuration, tags));
+        }
+    }
+
+    private void oversize(BatchRequest request, long size) throws Exception {
+        oversizeCount++;
+
+        switch (options.onOversizeRecord()) {
+            case FAIL -> throw new IllegalArgumentException(
+                "Record '" + objectId(request) + "' is " + size + " bytes, over the limit of " + options.maxRecordBytes() + " bytes"
+            );
+            case SKIP -> runContext.logger().warn(
+                "Skipping record '{}' of {} bytes, over the limit of {} bytes", objectId(request), size, options.maxRecordBytes()
+            );
+            case STORE -> {
+                if (oversizeOutput == null) {
+                    oversizeFile = runContext.workingDir().createTempFile(".ion").toFile();
+                    oversizeOutput = new BufferedOutputStream(new FileOutputStream(oversizeFile), FileSerde.BUFFER_SIZE);
+                }
+
+                FileSerde.write(oversizeOutput, request.getBody());
+            }
+        }
+    }
+
+    private void flush() throws Exception {
+        List<BatchRequest> requests = chunk;
+        long requestsBytes = chunkBytes;
+        long end = chunkEnd;
+        int sequence = batches.size();
+        chunk = new ArrayList<>(options.chunkSize());
+        chunkBytes = 0;
+
+        inFlight.acquire();
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Set<CompletableFuture<Void>> dependencies = new HashSet<>();
+        List<String> objectIds = new ArrayList<>(requests.size());
+
+        for (BatchRequest request : requests) {
+            String objectId = objectId(request);
+            if (objectId != null) {
+                objectIds.add(objectId);
+
+                CompletableFuture<Void> previous = pendingByObjectId.put(objectId, done);
+                if (previous != null && previous != done) {
+                    dependencies.add(previous);
+                }
+            }
+        }
+
+        CompletableFuture<Long> batch = CompletableFuture.supplyAsync(
+            () -> {
+                try {
+                    CompletableFuture.allOf(dependencies.toArray(CompletableFuture[]::new)).join();
+
+                    // a previous batch failed, the task will fail anyway so don't send anything more
+                    if (failure.get() != null) {
+                        return null;
+                    }
+
+                    long start = System.nanoTime();
+                    BatchResponse response = this.send(requests);
+                    latencies.record(System.nanoTime() - start);
+                    acknowledged.incrementAndGet();
+                    acknowledgedRecords.addAndGet(requests.size());
+                    acknowledgedBytes.addAndGet(requestsBytes);
+
+                    if (waiter != null) {
+                        waiter.watch(response.getTaskID());
+                    }
+
+                    if (options.checkpoint() != null) {
+                        options.checkpoint().acknowledge(sequence, end, response.getTaskID());
+                    }
+
+                    return response.getTaskID();
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                    throw e;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure.compareAndSet(null, e);
+                    throw new CompletionException(e);
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                    throw new CompletionException(e);
+                } finally {
+                    objectIds.forEach(objectId -> pendingByObjectId.remove(objectId, done));
+                    done.complete(null);
+                    inFlight.release();
+                }
+            },
+            executor
+        );
+
+        batches.add(batch);
+    }
+
+    private BatchResponse send(List<BatchRequest> requests) throws InterruptedException {
+        BatchWriteParams params = new BatchWriteParams().setRequests(requests);
+
+        return retry(
+            runContext, options.maxRetries(), retries,
+            "Batch of " + requests.size() + " request(s) on index '" + indexName + "'",
+            () -> {
+                if (options.requestsLimiter() != null) {
+                    options.requestsLimiter().acquire(1);
+                }
+
+                if (options.recordsLimiter() != null) {
+                    options.recordsLimiter().acquire(requests.size());
+                }
+
+                return client.batch(indexName, params);
+            }
+        );
+    }
+
+    /**
+     * Call {@code attempt} until it succeeds, retrying up to {@code maxRetries} times the failures that may succeed
+     * later, with a jittered exponential backoff; shared by every write request so {@code maxRetries} means the same
+     * everywhere.
+     */
+    static <T> T retry(RunContext runContext, int maxRetries, AtomicLong retries, String description, Attempt<T> attempt) throws InterruptedException {
+        for (int number = 0; ; number++) {
+            try {
+                return attempt.call();
+            } catch (AlgoliaApiException | AlgoliaRetryException e) {
+                if (number >= maxRetries || !retryable(e)) {
+                    throw e;
+                }
+
+                // jitter between half and the full exponential backoff, so parallel writers do not retry in lockstep
+                long backoff = Math.min(RETRY_MAX_DELAY.toMillis(), RETRY_INITIAL_DELAY.toMillis() << Math.min(number, 16));
+                long delay = ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1);
+
+                retries.incrementAndGet();
+                runContext.logger().warn(
+                    "{} failed with '{}', retry {}/{} in {}ms",
+                    description, e.getMessage(), number + 1, maxRetries, delay
+                );
+
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    private static boolean retryable(RuntimeException e) {
+        if (e instanceof AlgoliaApiException apiException) {
+            return apiException.getStatusCode() == 429 || apiException.getStatusCode() >= 500;
+        }
+
+        // every host was unreachable or timed out
+        return e instanceof AlgoliaRetryException;
+    }
+
+    private void throwIfFailed() throws Exception {
+        Exception e = failure.get();
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    /**
+     * Serialized size of the body of a request, as checked against {@code maxRecordBytes}.
+     * <p>
+     * The body is serialized into a stream that only counts bytes, so measuring it does not allocate a copy of the
+     * payload that the client will serialize again anyway.
+     */
+    static long bodyBytes(BatchRequest request) throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        MAPPER.writeValue(counter, request.getBody());
+
+        return counter.count;
+    }
+
+    /**
+     * Serialized size of a request in the batch payload, as counted against {@code maxBatchBytes}.
+     */
+    static long requestBytes(BatchRequest request, long bodyBytes) {
+        return bodyBytes + request.getAction().getValue().length() + REQUEST_OVERHEAD;
+    }
+
+    private static String objectId(BatchRequest request) {
+        if (request.getBody() instanceof Map<?, ?> body && body.get("objectID") != null) {
+            return body.get("objectID").toString();
+        }
+
+        return null;
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            executor.close();
+
+            if (waiter != null) {
+                waiter.close();
+            }
+
+            if (oversizeOutput != null) {
+                oversizeOutput.close();
+            }
+        } finally {
+            this.metrics();
+        }
+    }
+
+    @FunctionalInterface
+    interface Attempt<T> {
+        T call() throws InterruptedException;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count = 0;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    @Builder
+    record Options(
+        String operation,
+        int chunkSize,
+        int concurrency,
+        long maxBatchBytes,
+        long maxRecordBytes,
+        AbstractAlgoliaWriteTask.OversizeRecordBehavior onOversizeRecord,
+        boolean waitForIndexing,
+        Duration waitTimeout,
+        int maxRetries,
+        TokenBucket recordsLimiter,
+        TokenBucket requestsLimiter,
+        ImportCheckpoint checkpoint
+    ) {
+    }
+
+    record Result(long count, long bytes, List<Long> taskIds, long retries, long oversizeCount, URI oversizeUri, Duration waitDuration) {
+    }
+}
@@ -0,0 +1,459 @@
+package io.kestra.plugin.algolia;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import com.algolia.api.SearchClient;
+import com.algolia.exceptions.AlgoliaApiException;
+import com.algolia.model.search.IndexSettings;
+import com.algolia.model.search.Rule;
+import com.algolia.model.search.SearchRulesParams;
+import com.algolia.model.search.SearchSynonymsParams;
+import com.algolia.model.search.SynonymHit;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import io.kestra.core.models.annotations.PluginProperty;
+
+@SuperBuilder
+@Getter
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+@Schema(
+    title = "Push Algolia index settings, synonyms and rules",
+    description = "Compares the given settings, synonyms and rules with the current configuration of the index and only sends what changed, so a deploy that changes nothing triggers no rebuild of the index. " +
+        "Synonyms and rules are streamed from internal storage files and saved in chunks of `chunkSize`, " +
+        "except when `deleteMissing` has something to delete: the whole set is then saved in a single request that replaces the existing one. " +
+        "A synonym or rule is sent again when it differs in any way from the one in the index, including an attribute removed from the definition, as saving replaces it as a whole; " +
+        "settings are compared one by one and the settings not listed are left as they are. Uses an API Key with the `settings` and `editSettings` ACLs."
+)
+@Plugin(
+    examples = {
+        @Example(
+            full = true,
+            title = "Deploy the search configuration kept in the namespace files",
+            code = """
+                id: deploy_search_config
+                namespace: company.team
+
+                tasks:
+                  - id: configure
+                    type: io.kestra.plugin.algolia.Configure
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    indexName: "products"
+                    settings:
+                      searchableAttributes:
+                        - name
+                        - brand
+                      customRanking:
+                        - desc(popularity)
+                    synonyms: "nsfile:///algolia/synonyms.jsonl"
+                    rules: "nsfile:///algolia/rules.jsonl"
+                    deleteMissing: true
+                """
+        )
+    }
+)
+public class Configure extends AbstractAlgoliaTask<Configure.Output> implements RunnableTask<Configure.Output> {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+    private static final int PAGE_SIZE = 1000;
+
+    @Schema(
+        title = "Target index name",
+        description = "Algolia index to configure; it is created by the first settings update if it does not exist."
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> indexName;
+
+    @Schema(
+        title = "Index settings",
+        description = "Settings to apply, with the names of the Algolia settings API. Only the settings whose value differs from the index are sent; settings not listed are left as they are."
+    )
+    @PluginProperty(group = "main")
+    private Property<Map<String, Object>> settings;
+
+    @Schema(
+        title = "Synonyms file URI",
+        description = "Internal storage URI of an ION or JSON Lines file with one synonym per row, in the format of the Algolia synonyms API, each with an `objectID`."
+    )
+    @PluginProperty(group = "main", internalStorageURI = true)
+    private Property<String> synonyms;
+
+    @Schema(
+        title = "Rules file URI",
+        description = "Internal storage URI of an ION or JSON Lines file with one rule per row, in the format of the Algolia rules API, each with an `objectID`."
+    )
+    @PluginProperty(group = "main", internalStorageURI = true)
+    private Property<String> rules;
+
+    @Schema(
+        title = "Delete synonyms and rules missing from the files",
+        description = "If `true`, the synonyms of the index that are not in `synonyms`, and the rules that are not in `rules`, are deleted. Only applies to the files that are set. " +
+            "When there is anything to delete, the whole file is saved in a single request that replaces every synonym or rule of the index, rather than one request per deletion, " +
+            "so the file is held in memory and must fit in one request."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> deleteMissing = Property.ofValue(false);
+
+    @Schema(
+        title = "Forward the changes to the replicas",
+        description = "Apply the settings, synonyms and rules changes to the replicas of the index as well."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> forwardToReplicas = Property.ofValue(false);
+
+    @Schema(
+        title = "Synonyms or rules per request",
+        description = "Maximum number of changed synonyms or rules saved in a single request."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Integer> chunkSize = Property.ofValue(1000);
+
+    @Schema(
+        title = "Wait for the changes to be applied",
+        description = "If `true`, the task only ends once Algolia has published every change."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> waitForIndexing = Property.ofValue(false);
+
+    @Schema(
+        title = "Maximum time to wait for the changes",
+        description = "Maximum time to wait, once every change has been sent, for Algolia to publish them when `waitForIndexing` is enabled."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Duration> waitTimeout = Property.ofValue(Duration.ofMinutes(10));
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        if (settings == null && synonyms == null && rules == null) {
+            throw new IllegalArgumentException("At least one of 'settings', 'synonyms' or 'rules' must be set");
+        }
+
+        int rChunkSize = runContext.render(chunkSize).as(Integer.class).orElse(1000);
+        if (rChunkSize < 1) {
+            throw new IllegalArgumentException("'chunkSize' must be greater than 0");
+        }
+
+        try (AlgoliaClientCache.Lease lease = this.client(runContext)) {
+            SearchClient client = lease.client();
+            String rIndexName = runContext.render(indexName).as(String.class).orElseThrow();
+            boolean rDeleteMissing = runContext.render(deleteMissing).as(Boolean.class).orElse(false);
+            boolean rForwardToReplicas = runContext.render(forwardToReplicas).as(Boolean.class).orElse(false);
+
+            List<Long> taskIds = new ArrayList<>();
+            Output.OutputBuilder output = Output.builder();
+
+            if (settings != null) {
+                Map<String, Object> rSettings = runContext.render(settings).asMap(String.class, Object.class);
+                List<String> changed = this.settings(client, rIndexName, rSettings, rForwardToReplicas, taskIds);
+
+                runContext.logger().info("Updated {} setting(s) of index '{}': {}", changed.size(), rIndexName, changed);
+                output.settingsUpdated(changed);
+            }
+
+            if (synonyms != null) {
+                Map<String, ObjectNode> current = this.current(
+                    page -> client.searchSynonyms(rIndexName, new SearchSynonymsParams().setPage(page).setHitsPerPage(PAGE_SIZE)).getHits()
+                );
+
+                Changes changes = this.rows(runContext, null, Map.class, synonyms, rows -> this.push(
+                    rows, current, SynonymHit.class, rChunkSize, rDeleteMissing, taskIds,
+                    (chunk, replace) -> client.saveSynonyms(rIndexName, chunk, rForwardToReplicas, replace).getTaskID()
+                ));
+
+                this.report(runContext, rIndexName, "synonyms", changes);
+                output
+                    .synonymsSaved(changes.saved())
+                    .synonymsUnchanged(changes.unchanged())
+                    .synonymsDeleted(changes.deleted());
+            }
+
+            if (rules != null) {
+                Map<String, ObjectNode> current = this.current(
+                    page -> client.searchRules(rIndexName, new SearchRulesParams().setPage(page).setHitsPerPage(PAGE_SIZE)).getHits()
+                );
+
+                Changes changes = this.rows(runContext, null, Map.class, rules, rows -> this.push(
+                    rows, current, Rule.class, rChunkSize, rDeleteMissing, taskIds,
+                    (chunk, replace) -> client.saveRules(rIndexName, chunk, rForwardToReplicas, replace).getTaskID()
+                ));
+
+                this.report(runContext, rIndexName, "rules", changes);
+                output
+                    .rulesSaved(changes.saved())
+                    .rulesUnchanged(changes.unchanged())
+                    .rulesDeleted(changes.deleted());
+            }
+
+            if (runContext.render(waitForIndexing).as(Boolean.class).orElse(false) && !taskIds.isEmpty()) {
+                Duration rWaitTimeout = runContext.render(waitTimeout).as(Duration.class).orElse(Duration.ofMinutes(10));
+
+                try (TaskWaiter waiter = new TaskWaiter(client, rIndexName, TaskWaiter.DEFAULT_CONCURRENCY, rWaitTimeout)) {
+                    taskIds.forEach(waiter::watch);
+                    runContext.metric(Timer.of("wait.duration", waiter.await(), "index", rIndexName, "operation", "configure"));
+                }
+            }
+
+            return output
+                .taskIds(taskIds)
+                .build();
+        }
+    }
+
+    /**
+     * Send the settings whose value differs from the index in a single partial update.
+     *
+     * @return the names of the settings sent
+     */
+    private List<String> settings(SearchClient client, String indexName, Map<String, Object> settings, boolean forwardToReplicas, List<Long> taskIds) {
+        // round trip through the client model so both sides use the same representation
+        ObjectNode desired = normalize(MAPPER.valueToTree(MAPPER.convertValue(settings, IndexSettings.class)));
+        Object response = ifExists(() -> client.getSettings(indexName));
+        ObjectNode current = response != null ? normalize(MAPPER.valueToTree(response)) : MAPPER.createObjectNode();
+
+        ObjectNode changes = MAPPER.createObjectNode();
+        List<String> changed = new ArrayList<>();
+
+        Iterator<Map.Entry<String, JsonNode>> fields = desired.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+
+            if (!field.getValue().equals(current.get(field.getKey()))) {
+                changes.set(field.getKey(), field.getValue());
+                changed.add(field.getKey());
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            taskIds.add(client.setSettings(indexName, MAPPER.convertValue(changes, IndexSettings.class), forwardToReplicas).getTaskID());
+        }
+
+        return changed;
+    }
+
+    /**
+     * Read every synonym or rule of the index, page by page, keyed by objectID.
+     */
+    private Map<String, ObjectNode> current(PageFunction pages) {
+        Map<String, ObjectNode> current = new HashMap<>();
+
+        List<?> hits;
+        int page = 0;
+        do {
+            int number = page++;
+            hits = Objects.requireNonNullElse(ifExists(() -> pages.apply(number)), List.of());
+
+            for (Object hit : hits) {
+                ObjectNode node = normalize(MAPPER.valueToTree(hit));
+                current.put(node.get("objectID").asText(), node);
+            }
+        } while (hits.size() >= PAGE_SIZE);
+
+        return current;
+    }
+
+    /**
+     * Stream the wanted definitions and save those that differ from {@code current} in chunks.
+     * <p>
+     * With {@code deleteMissing}, the definitions are held until the end: if some of {@code current} are missing, the
+     * whole set is saved in one request that replaces the existing one, {@code replace} being {@code true}, instead of a
+     * request per deletion.
+     */
+    private <D> Changes push(
+        Iterable<?> rows,
+        Map<String, ObjectNode> current,
+        Class<D> type,
+        int chunkSize,
+        boolean deleteMissing,
+        List<Long> taskIds,
+        BiFunction<List<D>, Boolean, Long> save
+    ) {
+        Set<String> seen = new HashSet<>();
+        List<D> desired = new ArrayList<>();
+        List<D> chunk = new ArrayList<>(chunkSize);
+        long saved = 0;
+        long unchanged = 0;
+
+        for (Object row : rows) {
+            if (!(row instanceof Map<?, ?> map) || map.get("objectID") == null) {
+                throw new IllegalArgumentException("Invalid definition, expected an object with an 'objectID' but got '" + row + "'");
+            }
+
+            String objectId = map.get("objectID").toString();
+            if (!seen.add(objectId)) {
+                throw new IllegalArgumentException("Duplicate definition for objectID '" + objectId + "'");
+            }
+
+            D definition = MAPPER.convertValue(map, type);
+            if (deleteMissing) {
+                desired.add(definition);
+            }
+
+            // saving replaces the whole definition, so it is compared as a whole: an attribute only in the index is a change too
+            if (normalize(MAPPER.valueToTree(definition)).equals(current.get(objectId))) {
+                unchanged++;
+                continue;
+            }
+
+            chunk.add(definition);
+            saved++;
+
+            // with deleteMissing, the changes are only sent once it is known whether the whole set must replace the index's
+            if (!deleteMissing && chunk.size() >= chunkSize) {
+                taskIds.add(save.apply(chunk, false));
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+
+        long deleted = deleteMissing ? current.keySet().stream().filter(objectId -> !seen.contains(objectId)).count() : 0;
+        if (deleted > 0) {
+            taskIds.add(save.apply(desired, true));
+        } else {
+            for (int from = 0; from < chunk.size(); from += chunkSize) {
+                taskIds.add(save.apply(chunk.subList(from, Math.min(from + chunkSize, chunk.size())), false));
+            }
+        }
+
+        return new Changes(saved, unchanged, deleted);
+    }
+
+    private void report(RunContext runContext, String indexName, String kind, Changes changes) {
+        runContext.metric(Counter.of(kind + ".saved", changes.saved(), "index", indexName));
+        runContext.metric(Counter.of(kind + ".unchanged", changes.unchanged(), "index", indexName));
+        runContext.metric(Counter.of(kind + ".deleted", changes.deleted(), "index", indexName));
+
+        runContext.logger().info(
+            "Configured {} of index '{}': {} saved, {} unchanged, {} deleted",
+            kind, indexName, changes.saved(), changes.unchanged(), changes.deleted()
+        );
+    }
+
+    /**
+     * @return the response of the call, or {@code null} if the index does not exist yet
+     */
+    private static <T> T ifExists(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (AlgoliaApiException e) {
+            if (e.getStatusCode() == 404) {
+                return null;
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Drop the null attributes, at any depth, and the ones Algolia adds to its responses, such as
+     * {@code _highlightResult} or {@code _metadata}.
+     */
+    private static ObjectNode normalize(ObjectNode node) {
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+
+            if (field.getKey().startsWith("_") || field.getValue().isNull()) {
+                fields.remove();
+            } else {
+                dropNulls(field.getValue());
+            }
+        }
+
+        return node;
+    }
+
+    private static void dropNulls(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            while (fields.hasNext()) {
+                JsonNode value = fields.next().getValue();
+                if (value.isNull()) {
+                    fields.remove();
+                } else {
+                    dropNulls(value);
+                }
+            }
+        } else if (node.isArray()) {
+            node.forEach(Configure::dropNulls);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PageFunction {
+        List<?> apply(int page);
+    }
+
+    private record Changes(long saved, long unchanged, long deleted) {
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "Updated settings",
+            description = "Names of the settings whose value changed and that were sent to Algolia."
+        )
+        private final List<String> settingsUpdated;
+
+        @Schema(title = "Number of synonyms added or changed")
+        private final Long synonymsSaved;
+
+        @Schema(title = "Number of synonyms already up to date")
+        private final Long synonymsUnchanged;
+
+        @Schema(
+            title = "Number of synonyms deleted",
+            description = "Synonyms of the index missing from the file, deleted by `deleteMissing`."
+        )
+        private final Long synonymsDeleted;
+
+        @Schema(title = "Number of rules added or changed")
+        private final Long rulesSaved;
+
+        @Schema(title = "Number of rules already up to date")
+        private final Long rulesUnchanged;
+
+        @Schema(
+            title = "Number of rules deleted",
+            description = "Rules of the index missing from the file, deleted by `deleteMissing`."
+        )
+        private final Long rulesDeleted;
+
+        @Schema(
+            title = "Task IDs",
+            description = "Algolia taskID of every settings, synonyms and rules request sent."
+        )
+        private final List<Long> taskIds;
+    }
+}
@@ -2,18 +2,24 @@ package io.kestra.plugin.algolia;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import com.algolia.api.SearchClient;
 import com.algolia.model.search.Action;
 import com.algolia.model.search.BatchRequest;
-import com.algolia.model.search.BatchResponse;
-import com.algolia.model.search.BatchWriteParams;
+import com.algolia.model.search.DeleteByParams;
+import com.algolia.model.search.UpdatedAtResponse;
 
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
@@ -27,8 +33,10 @@ import io.kestra.core.models.annotations.PluginProperty;
 @ToString
 @EqualsAndHashCode
 @Schema(
-    title = "Delete Algolia records by ID",
-    description = "Batch-delete records from an Algolia index using objectIDs. Uses a single batch request with the Admin API Key."
+    title = "Delete Algolia records by ID or filter",
+    description = "Delete records from an Algolia index using the Admin API Key. " +
+        "Set `objectIds` for an inline list of IDs or `from` to stream IDs from an internal storage file; they are sent in chunks of `chunkSize` objectIDs, with up to `concurrency` batch requests in flight. " +
+        "Alternatively, set `deleteBy` to let Algolia delete every record matching filters in a single call."
 )
 @Plugin(
     examples = {
@@ -49,10 +57,47 @@ import io.kestra.core.models.annotations.PluginProperty;
                       - "id_1"
                       - "id_2"
                 """
+        ),
+        @Example(
+            full = true,
+            title = "Delete every record of a brand server-side",
+            code = """
+                id: purge_brand
+                namespace: company.team
+
+                tasks:
+                  - id: purge_brand
+                    type: io.kestra.plugin.algolia.Delete
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    indexName: "products"
+                    deleteBy:
+                      filters: "brand:acme AND updatedAt < 1704067200"
+                """
+        ),
+        @Example(
+            full = true,
+            title = "Delete objectIDs listed in an internal storage file",
+            code = """
+                id: delete_from_file
+                namespace: company.team
+
+                inputs:
+                  - id: ids
+                    type: FILE
+
+                tasks:
+                  - id: delete_ids
+                    type: io.kestra.plugin.algolia.Delete
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    indexName: "products"
+                    from: "{{ inputs.ids }}"
+                """
         )
     }
 )
-public class Delete extends AbstractAlgoliaTask<Delete.Output> implements RunnableTask<Delete.Output> {
+public class Delete extends AbstractAlgoliaWriteTask<Delete.Output> implements RunnableTask<Delete.Output> {
     @Schema(
         title = "Target index name",
         description = "Algolia index to delete from; must exist in the same application."
@@ -63,29 +108,122 @@ public class Delete extends AbstractAlgoliaTask<Delete.Output> implements Runnab
 
     @Schema(
         title = "Object IDs to delete",
-        description = "List of objectIDs removed in a single batch; missing IDs are ignored by Algolia."
+        description = "List of objectIDs to remove; missing IDs are ignored by Algolia. Exactly one of `objectIds`, `from` or `deleteBy` must be set."
     )
-    @NotNull
     @PluginProperty(group = "main")
     private Property<List<String>> objectIds;
 
+    @Schema(
+        title = "Source file URI",
+        description = "Internal storage URI of an ION or JSON Lines file with one objectID per row, either as a string or as an object with an `objectID` attribute. IDs are read lazily and deleted chunk by chunk. Exactly one of `objectIds`, `from` or `deleteBy` must be set."
+    )
+    @PluginProperty(group = "main", internalStorageURI = true)
+    private Property<String> from;
+
+    @Schema(
+        title = "Delete by filters",
+        description = "Parameters of the Algolia `deleteBy` endpoint (`filters`, `facetFilters`, `numericFilters`, `tagFilters`, `aroundLatLng`, `aroundRadius`, `insideBoundingBox`, `insidePolygon`). Every matching record is deleted by Algolia in a single operation, " +
+            "which is retried like a batch up to `maxRetries` times, `waitForIndexing` waits for and `maxRequestsPerSecond` counts as one request. Exactly one of `objectIds`, `from` or `deleteBy` must be set."
+    )
+    @PluginProperty(group = "main")
+    private Property<Map<String, Object>> deleteBy;
+
+    @Schema(
+        title = "Additional target indices",
+        description = "Other indices, possibly in other applications, to delete the same objectIDs from. Each chunk is built once and sent to every index in parallel, " +
+            "each target with its own retries and rate limits. Cannot be combined with `deleteBy`."
+    )
+    @PluginProperty(group = "advanced")
+    private List<Target> targets;
+
+    @Schema(
+        title = "Ignore errors of additional targets",
+        description = "If `true`, a failing target is reported in the `targets` output and no longer written to, while the other indices are still written to. A failure of `indexName` always fails the task."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> ignoreTargetErrors = Property.ofValue(false);
+
     @Override
     public Output run(RunContext runContext) throws Exception {
-        try (SearchClient client = this.client(runContext)) {
+        if (Stream.of(objectIds, from, deleteBy).filter(Objects::nonNull).count() != 1) {
+            throw new IllegalArgumentException("Exactly one of 'objectIds', 'from' or 'deleteBy' must be set");
+        }
+
+        if (deleteBy != null && targets != null && !targets.isEmpty()) {
+            throw new IllegalArgumentException("'targets' cannot be combined with 'deleteBy'");
+        }
+
+        try (AlgoliaClientCache.Lease lease = this.client(runContext)) {
+            SearchClient client = lease.client();
             String rIndex = runContext.render(indexName).as(String.class).orElseThrow();
-            List<String> rObjectIds = runContext.render(objectIds).asList(String.class);
 
-            List<BatchRequest> requests = rObjectIds.stream()
-                .map(id -> new BatchRequest().setAction(Action.DELETE_OBJECT).setBody(Map.of("objectID", id)))
-                .toList();
+            if (deleteBy != null) {
+                Map<String, Object> rDeleteBy = runContext.render(deleteBy).asMap(String.class, Object.class);
+                DeleteByParams params = JacksonMapper.ofJson().convertValue(rDeleteBy, DeleteByParams.class);
+
+                // the same rate limit, retries and wait options as the batch path
+                BatchWriter.Options options = this.writerOptions(runContext).build();
+                String[] tags = {"index", rIndex, "operation", "delete_by"};
+                AtomicLong retries = new AtomicLong();
+                Latencies latencies = new Latencies();
+
+                UpdatedAtResponse response;
+                try {
+                    long start = System.nanoTime();
+                    response = BatchWriter.retry(
+                        runContext, options.maxRetries(), retries,
+                        "Delete by " + rDeleteBy + " on index '" + rIndex + "'",
+                        () -> {
+                            if (options.requestsLimiter() != null) {
+                                options.requestsLimiter().acquire(1);
+                            }
+
+                            return client.deleteBy(rIndex, params);
+                        }
+                    );
+                    latencies.record(System.nanoTime() - start);
+                } finally {
+                    runContext.metric(Counter.of("retries", retries.get(), tags));
+                    latencies.report(runContext, "batch.duration", tags);
+                }
+
+                if (options.waitForIndexing()) {
+                    try (TaskWaiter waiter = new TaskWaiter(client, rIndex, 1, options.waitTimeout())) {
+                        waiter.watch(response.getTaskID());
+                        runContext.metric(Timer.of("wait.duration", waiter.await(), tags));
+                    }
+                }
 
-            BatchWriteParams params = new BatchWriteParams().setRequests(requests);
-            BatchResponse response = client.batch(rIndex, params);
+                runContext.logger().info("Deleted records matching {} from index '{}'", rDeleteBy, rIndex);
 
-            runContext.logger().info("Deleted {} record(s) from index '{}'", rObjectIds.size(), rIndex);
+                return Output.builder()
+                    .taskIds(List.of(response.getTaskID()))
+                    .build();
+            }
+
+            List<Target> rTargets = targets != null ? targets : List.of();
+
+            List<FanOutWriter.Outcome> outcomes = this.rows(runContext, objectIds, String.class, from, rows -> {
+                try (FanOutWriter writer = this.writer(runContext, client, rIndex, rTargets)) {
+                    for (Object row : rows) {
+                        writer.add(new BatchRequest().setAction(Action.DELETE_OBJECT).setBody(Map.of("objectID", objectId(row))));
+                    }
+
+                    return writer.finish();
+                }
+            });
+
+            BatchWriter.Result result = outcomes.getFirst().result();
+            List<TargetOutput> targetOutputs = targetOutputs(outcomes, runContext.render(ignoreTargetErrors).as(Boolean.class).orElse(false));
+
+            runContext.logger().info("Deleted {} record(s) from index '{}' in {} batch(es)", result.count(), rIndex, result.taskIds().size());
 
             return Output.builder()
-                .objectIds(response.getObjectIDs())
+                .objectIds(objectIds != null ? runContext.render(objectIds).asList(String.class) : null)
+                .count(result.count())
+                .taskIds(result.taskIds())
+                .targets(targets != null ? targetOutputs : null)
                 .build();
         }
     }
@@ -95,8 +233,26 @@ public class Delete extends AbstractAlgoliaTask<Delete.Output> implements Runnab
     public static class Output implements io.kestra.core.models.tasks.Output {
         @Schema(
             title = "Deleted objectIDs",
-            description = "ObjectIDs echoed by Algolia for the requested deletion batch."
+            description = "ObjectIDs sent to Algolia for deletion, only set when `objectIds` is used."
         )
         private final List<String> objectIds;
+
+        @Schema(
+            title = "Number of objectIDs sent",
+            description = "Not set with `deleteBy`, as Algolia does not report how many records matched."
+        )
+        private final Long count;
+
+        @Schema(
+            title = "Batch task IDs",
+            description = "Algolia taskID returned for each batch request, in the order the chunks were sent."
+        )
+        private final List<Long> taskIds;
+
+        @Schema(
+            title = "Results of the additional targets",
+            description = "One entry per item of `targets`, in the same order; the other outputs are about `indexName`."
+        )
+        private final List<TargetOutput> targets;
     }
 }
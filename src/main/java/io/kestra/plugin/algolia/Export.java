@@ -0,0 +1,308 @@
+package io.kestra.plugin.algolia;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+import com.algolia.api.SearchClient;
+import com.algolia.model.search.BrowseParamsObject;
+import com.algolia.model.search.BrowseResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import io.kestra.core.models.annotations.PluginProperty;
+
+@SuperBuilder
+@Getter
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+@Schema(
+    title = "Export every record of an Algolia index",
+    description = "Browses the whole index with the browse cursor and streams each record to a file in internal storage, so memory use stays flat whatever the index size. " +
+        "Set `partitions` to disjoint filters (for example one per facet value) to browse them in parallel; each partition is written to its own file and the files are concatenated in order. " +
+        "Requires an API Key with the `browse` ACL."
+)
+@Plugin(
+    examples = {
+        @Example(
+            full = true,
+            title = "Back up an index to a gzipped JSON Lines file",
+            code = """
+                id: backup_products
+                namespace: company.team
+
+                tasks:
+                  - id: export
+                    type: io.kestra.plugin.algolia.Export
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    indexName: "products"
+                    format: JSONL
+                    compression: GZIP
+                """
+        ),
+        @Example(
+            full = true,
+            title = "Export a projection of a large index in parallel, one partition per category",
+            code = """
+                id: export_products
+                namespace: company.team
+
+                tasks:
+                  - id: export
+                    type: io.kestra.plugin.algolia.Export
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    indexName: "products"
+                    attributesToRetrieve:
+                      - name
+                      - price
+                    partitions:
+                      - "category:apparel"
+                      - "category:shoes"
+                      - "NOT category:apparel AND NOT category:shoes"
+                """
+        )
+    }
+)
+public class Export extends AbstractAlgoliaTask<Export.Output> implements RunnableTask<Export.Output> {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+
+    @Schema(
+        title = "Source index name",
+        description = "Algolia index to export within the configured application."
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> indexName;
+
+    @Schema(
+        title = "Browse parameters",
+        description = "Any Algolia browse params (query, filters, etc.) restricting the exported records; every record is exported by default."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Map<String, Object>> params;
+
+    @Schema(
+        title = "Attributes to export",
+        description = "Only these attributes (and `objectID`) are exported; all attributes by default."
+    )
+    @PluginProperty(group = "main")
+    private Property<List<String>> attributesToRetrieve;
+
+    @Schema(
+        title = "Disjoint partition filters",
+        description = "Algolia filters splitting the index into disjoint parts browsed in parallel; they are combined with the `filters` of `params`. " +
+            "Records matching none of them are not exported, and records matching several are exported several times."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<List<String>> partitions;
+
+    @Schema(
+        title = "Maximum number of partitions browsed in parallel"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Integer> concurrency = Property.ofValue(4);
+
+    @Schema(
+        title = "Output file format",
+        description = "`ION` (the Kestra internal format) or `JSONL` (one JSON object per line)."
+    )
+    @Builder.Default
+    @PluginProperty(group = "main")
+    private Property<Format> format = Property.ofValue(Format.ION);
+
+    @Schema(
+        title = "Output file compression"
+    )
+    @Builder.Default
+    @PluginProperty(group = "main")
+    private Property<Compression> compression = Property.ofValue(Compression.NONE);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        try (AlgoliaClientCache.Lease lease = this.client(runContext)) {
+            SearchClient client = lease.client();
+            String rIndex = runContext.render(indexName).as(String.class).orElseThrow();
+            Format rFormat = runContext.render(format).as(Format.class).orElse(Format.ION);
+            Compression rCompression = runContext.render(compression).as(Compression.class).orElse(Compression.NONE);
+            int rConcurrency = runContext.render(concurrency).as(Integer.class).orElse(4);
+
+            if (rConcurrency < 1) {
+                throw new IllegalArgumentException("'concurrency' must be greater than 0");
+            }
+
+            Map<String, Object> browse = new HashMap<>(runContext.render(params).asMap(String.class, Object.class));
+            List<String> rAttributesToRetrieve = runContext.render(attributesToRetrieve).asList(String.class);
+            if (!rAttributesToRetrieve.isEmpty()) {
+                browse.put("attributesToRetrieve", rAttributesToRetrieve);
+            }
+            browse.putIfAbsent("hitsPerPage", 1000);
+
+            List<String> rPartitions = runContext.render(partitions).asList(String.class);
+            List<Map<String, Object>> partitionParams = new ArrayList<>();
+            if (rPartitions.isEmpty()) {
+                partitionParams.add(browse);
+            } else {
+                for (String partition : rPartitions) {
+                    Map<String, Object> partitionBrowse = new HashMap<>(browse);
+                    partitionBrowse.put("filters", browse.get("filters") instanceof String filters && !filters.isBlank()
+                        ? "(" + filters + ") AND (" + partition + ")"
+                        : partition
+                    );
+                    partitionParams.add(partitionBrowse);
+                }
+            }
+
+            String extension = rFormat.extension + (rCompression == Compression.GZIP ? ".gz" : "");
+            List<Path> files = new ArrayList<>(partitionParams.size());
+            for (int i = 0; i < partitionParams.size(); i++) {
+                files.add(runContext.workingDir().createTempFile(extension));
+            }
+
+            Semaphore inFlight = new Semaphore(rConcurrency);
+            Latencies latencies = new Latencies();
+            List<CompletableFuture<Long>> exports = new ArrayList<>(partitionParams.size());
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < partitionParams.size(); i++) {
+                    BrowseParamsObject browseParams = MAPPER.convertValue(partitionParams.get(i), BrowseParamsObject.class);
+                    Path file = files.get(i);
+
+                    exports.add(CompletableFuture.supplyAsync(() -> {
+                        try {
+                            inFlight.acquire();
+                            try {
+                                return this.export(client, rIndex, browseParams, file, rFormat, rCompression, latencies);
+                            } finally {
+                                inFlight.release();
+                            }
+                        } catch (Exception e) {
+                            throw new CompletionException(e);
+                        }
+                    }, executor));
+                }
+
+                CompletableFuture.allOf(exports.toArray(CompletableFuture[]::new)).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Exception cause) {
+                    throw cause;
+                }
+
+                throw e;
+            } finally {
+                // reported from the task thread once every partition is done, even if one of them failed
+                latencies.report(runContext, "request.duration", "index", rIndex, "operation", "export");
+            }
+
+            long size = exports.stream().mapToLong(CompletableFuture::join).sum();
+
+            // gzip members can be concatenated into a single valid gzip stream, so partitions are appended as they are
+            File output = files.getFirst().toFile();
+            if (files.size() > 1) {
+                output = runContext.workingDir().createTempFile(extension).toFile();
+                try (OutputStream out = new FileOutputStream(output)) {
+                    for (Path file : files) {
+                        Files.copy(file, out);
+                        Files.delete(file);
+                    }
+                }
+            }
+
+            runContext.metric(Counter.of("hits", size, "index", rIndex, "operation", "export"));
+            runContext.logger().info("Exported {} records of Algolia index '{}' from {} partition(s)", size, rIndex, files.size());
+
+            return Output.builder()
+                .size(size)
+                .uri(runContext.storage().putFile(output))
+                .build();
+        }
+    }
+
+    private long export(SearchClient client, String indexName, BrowseParamsObject browseParams, Path file, Format format, Compression compression, Latencies latencies) throws Exception {
+        long size = 0;
+
+        OutputStream fileOutput = new FileOutputStream(file.toFile());
+        if (compression == Compression.GZIP) {
+            fileOutput = new GZIPOutputStream(fileOutput, FileSerde.BUFFER_SIZE);
+        }
+
+        try (OutputStream output = new BufferedOutputStream(fileOutput, FileSerde.BUFFER_SIZE)) {
+            String cursor = null;
+
+            do {
+                long start = System.nanoTime();
+                BrowseResponse<ObjectNode> page = client.browse(indexName, browseParams.setCursor(cursor), ObjectNode.class);
+                latencies.record(System.nanoTime() - start);
+
+                for (ObjectNode hit : page.getHits()) {
+                    if (format == Format.JSONL) {
+                        output.write(MAPPER.writeValueAsBytes(hit));
+                        output.write('\n');
+                    } else {
+                        FileSerde.write(output, hit);
+                    }
+                    size++;
+                }
+
+                cursor = page.getCursor();
+            } while (cursor != null);
+        }
+
+        return size;
+    }
+
+    @AllArgsConstructor
+    public enum Format {
+        ION(".ion"),
+        JSONL(".jsonl");
+
+        private final String extension;
+    }
+
+    public enum Compression {
+        NONE,
+        GZIP
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Number of exported records")
+        private final Long size;
+
+        @Schema(
+            title = "Exported records file",
+            description = "Internal storage URI of the file holding every exported record, in the requested format and compression."
+        )
+        private final URI uri;
+    }
+}
@@ -0,0 +1,120 @@
+package io.kestra.plugin.algolia;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.algolia.model.search.BatchRequest;
+
+import io.kestra.core.runners.RunContext;
+
+/**
+ * Writes the same stream of {@link BatchRequest} to several indices, possibly in several applications.
+ * <p>
+ * Each request is measured once and handed to one {@link BatchWriter} per destination, which cut identical chunks and
+ * send them in parallel with their own concurrency, retries and limiters. The first destination is the primary one:
+ * its failure fails the write, while a failing secondary destination is only dropped and reported in its outcome.
+ */
+class FanOutWriter implements AutoCloseable {
+    private final RunContext runContext;
+    private final List<Destination> destinations;
+    private final Exception[] failures;
+
+    FanOutWriter(RunContext runContext, List<Destination> destinations) {
+        this.runContext = runContext;
+        this.destinations = destinations;
+        this.failures = new Exception[destinations.size()];
+    }
+
+    void add(BatchRequest request) throws Exception {
+        long size = BatchWriter.bodyBytes(request);
+
+        for (int i = 0; i < destinations.size(); i++) {
+            if (failures[i] != null) {
+                continue;
+            }
+
+            try {
+                destinations.get(i).writer().add(request, size);
+            } catch (Exception e) {
+                if (i == 0) {
+                    throw e;
+                }
+
+                this.fail(i, e);
+            }
+        }
+    }
+
+    /**
+     * Wait for every destination, then rethrow the failure of the primary one if any.
+     */
+    List<Outcome> finish() throws Exception {
+        List<Outcome> outcomes = new ArrayList<>(destinations.size());
+
+        for (int i = 0; i < destinations.size(); i++) {
+            Destination destination = destinations.get(i);
+            BatchWriter.Result result = null;
+
+            if (failures[i] == null) {
+                try {
+                    result = destination.writer().finish();
+                } catch (Exception e) {
+                    this.fail(i, e);
+                }
+            }
+
+            outcomes.add(new Outcome(destination.applicationId(), destination.indexName(), result, failures[i]));
+        }
+
+        if (failures[0] != null) {
+            throw failures[0];
+        }
+
+        return outcomes;
+    }
+
+    private void fail(int index, Exception e) {
+        failures[index] = e;
+
+        if (index > 0) {
+            Destination destination = destinations.get(index);
+            runContext.logger().warn(
+                "Write to index '{}' of application '{}' failed, no more records are sent to it",
+                destination.indexName(), destination.applicationId(), e
+            );
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        Exception first = null;
+
+        for (Destination destination : destinations) {
+            try {
+                destination.writer().close();
+            } catch (Exception e) {
+                first = first == null ? e : first;
+            } finally {
+                if (destination.lease() != null) {
+                    destination.lease().close();
+                }
+            }
+        }
+
+        if (first != null) {
+            throw first;
+        }
+    }
+
+    /**
+     * @param lease the client lease to give back on close, {@code null} when it is owned by the caller
+     */
+    record Destination(String applicationId, String indexName, BatchWriter writer, AlgoliaClientCache.Lease lease) {
+    }
+
+    /**
+     * @param result {@code null} if the destination failed
+     */
+    record Outcome(String applicationId, String indexName, BatchWriter.Result result, Exception error) {
+    }
+}
@@ -0,0 +1,268 @@
+package io.kestra.plugin.algolia;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.algolia.api.SearchClient;
+import com.algolia.model.search.GetObjectsParams;
+import com.algolia.model.search.GetObjectsRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import io.kestra.core.models.annotations.PluginProperty;
+
+@SuperBuilder
+@Getter
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+@Schema(
+    title = "Retrieve Algolia records by objectID",
+    description = "Looks up records by objectID with the multi-get endpoint, without any search ranking. " +
+        "IDs are sent in chunks of `chunkSize`, up to `concurrency` requests at once, and the records found are streamed to an ION file in internal storage in the order of the IDs."
+)
+@Plugin(
+    examples = {
+        @Example(
+            full = true,
+            title = "Enrich orders with the product records they reference",
+            code = """
+                id: enrich_orders
+                namespace: company.team
+
+                inputs:
+                  - id: product_ids
+                    type: FILE
+
+                tasks:
+                  - id: products
+                    type: io.kestra.plugin.algolia.GetObjects
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    indexName: "products"
+                    from: "{{ inputs.product_ids }}"
+                    attributesToRetrieve:
+                      - name
+                      - price
+                """
+        )
+    }
+)
+public class GetObjects extends AbstractAlgoliaTask<GetObjects.Output> implements RunnableTask<GetObjects.Output> {
+    @Schema(
+        title = "Source index name",
+        description = "Algolia index holding the records."
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> indexName;
+
+    @Schema(
+        title = "ObjectIDs to retrieve",
+        description = "Exactly one of `objectIds` or `from` must be set."
+    )
+    @PluginProperty(group = "main")
+    private Property<List<String>> objectIds;
+
+    @Schema(
+        title = "Source file URI",
+        description = "Internal storage URI of an ION or JSON Lines file whose rows are objectIDs or records with an `objectID`, read lazily. Exactly one of `objectIds` or `from` must be set."
+    )
+    @PluginProperty(group = "main", internalStorageURI = true)
+    private Property<String> from;
+
+    @Schema(
+        title = "Attributes to retrieve",
+        description = "Only these attributes (and `objectID`) are returned; all attributes by default."
+    )
+    @PluginProperty(group = "main")
+    private Property<List<String>> attributesToRetrieve;
+
+    @Schema(
+        title = "ObjectIDs per request",
+        description = "Maximum number of objectIDs sent in a single multi-get request."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Integer> chunkSize = Property.ofValue(1000);
+
+    @Schema(
+        title = "Maximum number of parallel requests"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Integer> concurrency = Property.ofValue(4);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        if ((objectIds == null) == (from == null)) {
+            throw new IllegalArgumentException("Exactly one of 'objectIds' or 'from' must be set");
+        }
+
+        try (AlgoliaClientCache.Lease lease = this.client(runContext)) {
+            SearchClient client = lease.client();
+            String rIndex = runContext.render(indexName).as(String.class).orElseThrow();
+            List<String> rAttributesToRetrieve = runContext.render(attributesToRetrieve).asList(String.class);
+            int rChunkSize = runContext.render(chunkSize).as(Integer.class).orElse(1000);
+            int rConcurrency = runContext.render(concurrency).as(Integer.class).orElse(4);
+
+            if (rChunkSize < 1 || rConcurrency < 1) {
+                throw new IllegalArgumentException("'chunkSize' and 'concurrency' must be greater than 0");
+            }
+
+            File tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+            Latencies latencies = new Latencies();
+
+            Counts counts;
+            try {
+                counts = this.rows(runContext, objectIds, String.class, from, rows -> this.fetchAll(
+                    client, rIndex, rAttributesToRetrieve, rChunkSize, rConcurrency, rows, tempFile, latencies
+                ));
+            } finally {
+                // reported from the task thread, even if a request failed
+                latencies.report(runContext, "request.duration", "index", rIndex, "operation", "get_objects");
+            }
+
+            runContext.metric(Counter.of("records", counts.found(), "index", rIndex, "operation", "get_objects"));
+            runContext.logger().info("Retrieved {} of {} requested record(s) from Algolia index '{}'", counts.found(), counts.requested(), rIndex);
+
+            return Output.builder()
+                .requested(counts.requested())
+                .size(counts.found())
+                .missing(counts.requested() - counts.found())
+                .uri(runContext.storage().putFile(tempFile))
+                .build();
+        }
+    }
+
+    private Counts fetchAll(
+        SearchClient client,
+        String rIndex,
+        List<String> rAttributesToRetrieve,
+        int rChunkSize,
+        int rConcurrency,
+        Iterable<?> rows,
+        File tempFile,
+        Latencies latencies
+    ) throws Exception {
+        long requested = 0;
+        long found = 0;
+
+        // requests run in parallel but are written in order: the oldest one is awaited once `concurrency` are in flight
+        Deque<CompletableFuture<List<JsonNode>>> inFlight = new ArrayDeque<>();
+
+        try (
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            OutputStream output = new BufferedOutputStream(new FileOutputStream(tempFile), FileSerde.BUFFER_SIZE)
+        ) {
+            List<GetObjectsRequest> chunk = new ArrayList<>(rChunkSize);
+
+            for (Object row : rows) {
+                GetObjectsRequest request = new GetObjectsRequest()
+                    .setIndexName(rIndex)
+                    .setObjectID(objectId(row));
+                if (!rAttributesToRetrieve.isEmpty()) {
+                    request.setAttributesToRetrieve(rAttributesToRetrieve);
+                }
+
+                chunk.add(request);
+                requested++;
+
+                if (chunk.size() >= rChunkSize) {
+                    inFlight.add(this.fetch(client, chunk, executor, latencies));
+                    chunk = new ArrayList<>(rChunkSize);
+
+                    if (inFlight.size() >= rConcurrency) {
+                        found += this.write(inFlight.poll(), output);
+                    }
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                inFlight.add(this.fetch(client, chunk, executor, latencies));
+            }
+
+            while (!inFlight.isEmpty()) {
+                found += this.write(inFlight.poll(), output);
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+
+            throw e;
+        }
+
+        return new Counts(requested, found);
+    }
+
+    private CompletableFuture<List<JsonNode>> fetch(SearchClient client, List<GetObjectsRequest> requests, ExecutorService executor, Latencies latencies) {
+        return CompletableFuture.supplyAsync(
+            () -> {
+                long start = System.nanoTime();
+                List<JsonNode> results = client.getObjects(new GetObjectsParams().setRequests(requests), JsonNode.class).getResults();
+                latencies.record(System.nanoTime() - start);
+
+                return results;
+            },
+            executor
+        );
+    }
+
+    private long write(CompletableFuture<List<JsonNode>> future, OutputStream output) throws Exception {
+        long found = 0;
+        for (JsonNode result : future.join()) {
+            // ids not found come back as null
+            if (result != null && !result.isNull()) {
+                FileSerde.write(output, result);
+                found++;
+            }
+        }
+
+        return found;
+    }
+
+    private record Counts(long requested, long found) {
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Number of objectIDs requested")
+        private final Long requested;
+
+        @Schema(title = "Number of records found")
+        private final Long size;
+
+        @Schema(title = "Number of objectIDs not found")
+        private final Long missing;
+
+        @Schema(
+            title = "Retrieved records file",
+            description = "Internal storage URI of the ION file holding the records found, in the order of the requested objectIDs."
+        )
+        private final URI uri;
+    }
+}
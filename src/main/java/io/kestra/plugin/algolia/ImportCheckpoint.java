@@ -0,0 +1,175 @@
+package io.kestra.plugin.algolia;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+
+/**
+ * Progress of a chunked import kept in the namespace KV store, so that a retried or restarted task skips the records
+ * already acknowledged by Algolia.
+ * <p>
+ * Chunks are acknowledged out of order by parallel batches; only the offset up to which every chunk is acknowledged
+ * is saved, so a resumed import may resend some records of the chunks that were in flight but never skips one.
+ * The checkpoint is tied to its source and discarded if the task now reads another source.
+ * <p>
+ * Saves are debounced to one every {@link #SAVE_EVERY} chunks or {@link #SAVE_INTERVAL}, with a last one by
+ * {@link #flush()} when the import fails, and only hold the offset and the latest taskID: Algolia processes the tasks
+ * of an index in order, so that task being published means every earlier one is too. A worker killed between two
+ * saves resends at most the chunks acknowledged since the last one.
+ * <p>
+ * Chunks are acknowledged from the virtual threads of the batches, so the state is guarded by a lock that parks them
+ * instead of pinning their carrier during the save. A failed save is only logged and tried again later: the batch
+ * that triggered it is already acknowledged, and losing a save only means resending more records on resume.
+ */
+class ImportCheckpoint {
+    static final Duration TTL = Duration.ofDays(7);
+    static final int SAVE_EVERY = 10;
+    static final Duration SAVE_INTERVAL = Duration.ofSeconds(10);
+
+    private final Logger logger;
+    private final KVStore kv;
+    private final String key;
+    private final String source;
+    private final long resumedFrom;
+    private final Long previousTaskId;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Integer, Chunk> acknowledged = new HashMap<>();
+    private int nextSequence = 0;
+    private long committed;
+    private Long lastTaskId;
+    private int unsaved = 0;
+    private boolean dirty = false;
+    private long lastSave = System.nanoTime();
+
+    private ImportCheckpoint(Logger logger, KVStore kv, String key, String source, long resumedFrom, Long lastTaskId) {
+        this.logger = logger;
+        this.kv = kv;
+        this.key = key;
+        this.source = source;
+        this.resumedFrom = resumedFrom;
+        this.committed = resumedFrom;
+        this.previousTaskId = lastTaskId;
+        this.lastTaskId = lastTaskId;
+    }
+
+    static ImportCheckpoint load(RunContext runContext, String key, String source) throws Exception {
+        KVStore kv = runContext.namespaceKv(runContext.flowInfo().namespace());
+
+        Optional<KVValue> value = kv.getValue(key);
+        if (value.isPresent() && value.get().value() != null) {
+            State state = JacksonMapper.ofJson().readValue(value.get().value().toString(), State.class);
+
+            if (Objects.equals(state.source(), source)) {
+                runContext.logger().info("Resuming import from checkpoint '{}' after {} acknowledged record(s)", key, state.offset());
+                return new ImportCheckpoint(runContext.logger(), kv, key, source, state.offset(), state.lastTaskId());
+            }
+
+            runContext.logger().warn("Ignoring checkpoint '{}' taken on another source '{}'", key, state.source());
+        }
+
+        return new ImportCheckpoint(runContext.logger(), kv, key, source, 0, null);
+    }
+
+    /**
+     * Number of records of the source already acknowledged by a previous attempt, to skip.
+     */
+    long resumedFrom() {
+        return resumedFrom;
+    }
+
+    /**
+     * Latest task ID acknowledged by previous attempts, if any; waiting for it covers all the batches they sent.
+     */
+    List<Long> previousTaskIds() {
+        return previousTaskId != null ? List.of(previousTaskId) : List.of();
+    }
+
+    /**
+     * Record that the chunk number {@code sequence}, covering the records up to {@code end} (exclusive, counted from the
+     * resumed offset), was acknowledged, and save the new contiguous offset if enough chunks or time passed since the
+     * last save.
+     */
+    void acknowledge(int sequence, long end, Long taskId) {
+        lock.lock();
+        try {
+            acknowledged.put(sequence, new Chunk(end, taskId));
+
+            Chunk chunk;
+            while ((chunk = acknowledged.remove(nextSequence)) != null) {
+                committed = resumedFrom + chunk.end();
+                if (chunk.taskId() != null && (lastTaskId == null || chunk.taskId() > lastTaskId)) {
+                    lastTaskId = chunk.taskId();
+                }
+                nextSequence++;
+                unsaved++;
+                dirty = true;
+            }
+
+            if (unsaved >= SAVE_EVERY || (unsaved > 0 && System.nanoTime() - lastSave >= SAVE_INTERVAL.toNanos())) {
+                this.save();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Save the progress not saved yet, once no more chunk can be acknowledged.
+     */
+    void flush() {
+        lock.lock();
+        try {
+            if (dirty) {
+                this.save();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void save() {
+        // counted as an attempt even if it fails, so a failing store is not hit again on every chunk
+        unsaved = 0;
+        lastSave = System.nanoTime();
+
+        try {
+            kv.put(key, new KVValueAndMetadata(
+                new KVMetadata("Checkpoint of an Algolia import", TTL),
+                JacksonMapper.ofJson().writeValueAsString(new State(source, committed, lastTaskId))
+            ));
+            dirty = false;
+        } catch (Exception e) {
+            logger.warn("Unable to save checkpoint '{}' at offset {}, retrying with the next chunks", key, committed, e);
+        }
+    }
+
+    /**
+     * Drop the checkpoint once the import succeeded, so the next execution starts from scratch.
+     */
+    void delete() throws Exception {
+        kv.delete(key);
+    }
+
+    private record Chunk(long end, Long taskId) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record State(String source, long offset, Long lastTaskId) {
+    }
+}
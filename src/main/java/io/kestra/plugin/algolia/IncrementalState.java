@@ -0,0 +1,375 @@
+package io.kestra.plugin.algolia;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * Content hashes of the records sent by a previous {@link Index} run, used to only send added or changed records.
+ * <p>
+ * The state is a single file kept in the flow cache of the internal storage:
+ * <pre>
+ * int magic, int version, long count
+ * count x (long objectIdHash, long contentHash), sorted by objectIdHash
+ * count x (int length, utf-8 bytes objectId), in the same order
+ * </pre>
+ * The hash section of the previous state is memory-mapped and binary-searched, so looking up a record costs no heap;
+ * the only per-record heap structure is a {@link BitSet} of the previous records seen in this run.
+ * The next state is built with sorted spill files merged at the end, so it never has to fit in memory either.
+ */
+class IncrementalState implements AutoCloseable {
+    private static final int MAGIC = 0x414c4753;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int RUN_SIZE = 100_000;
+    private static final String CACHE_ID = "algolia-incremental";
+    // content hash of a record that is in the source but was not sent, which no record content hashes to in practice
+    private static final long STALE_CONTENT_HASH = 0L;
+
+    // looked up once per thread rather than twice per record
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private static final ObjectMapper CANONICAL_MAPPER = JacksonMapper.ofJson().copy()
+        .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final RunContext runContext;
+    private final String key;
+
+    private final Path previousFile;
+    private final FileChannel previousChannel;
+    private final LongBuffer previousHashes;
+    private final long previousCount;
+    private final BitSet seen;
+
+    private final int runSize;
+    private final List<Entry> run;
+    private final List<Path> runFiles = new ArrayList<>();
+
+    private IncrementalState(RunContext runContext, String key, Path previousFile, int runSize) throws IOException {
+        this.runContext = runContext;
+        this.key = key;
+        this.previousFile = previousFile;
+        this.runSize = runSize;
+        this.run = new ArrayList<>(runSize);
+
+        if (previousFile != null) {
+            this.previousChannel = FileChannel.open(previousFile, StandardOpenOption.READ);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            previousChannel.read(header, 0);
+            header.flip();
+
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Invalid incremental state '" + key + "', delete it from the flow cache to rebuild it");
+            }
+
+            this.previousCount = header.getLong();
+            if (previousCount * 16 > Integer.MAX_VALUE) {
+                throw new IOException("Incremental state '" + key + "' is too large to be memory-mapped");
+            }
+
+            this.previousHashes = previousChannel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, previousCount * 16).asLongBuffer();
+            this.seen = new BitSet((int) previousCount);
+        } else {
+            this.previousChannel = null;
+            this.previousHashes = null;
+            this.previousCount = 0;
+            this.seen = new BitSet();
+        }
+    }
+
+    static IncrementalState load(RunContext runContext, String key) throws IOException {
+        return load(runContext, key, RUN_SIZE);
+    }
+
+    /**
+     * @param runSize number of records sorted in memory before being spilled to a run file
+     */
+    static IncrementalState load(RunContext runContext, String key, int runSize) throws IOException {
+        Optional<InputStream> cached = runContext.storage().getCacheFile(CACHE_ID, key, null);
+        if (cached.isEmpty()) {
+            runContext.logger().info("No incremental state '{}' found, every record will be sent", key);
+            return new IncrementalState(runContext, key, null, runSize);
+        }
+
+        Path file = runContext.workingDir().createTempFile(".state");
+        try (InputStream inputStream = cached.get()) {
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return new IncrementalState(runContext, key, file, runSize);
+    }
+
+    /**
+     * Look a record of this run up in the previous state and mark it as seen, so it is not reported as missing.
+     * The record only becomes part of the next state once passed to {@link #keep(Lookup)}.
+     */
+    Lookup lookup(String objectId, Map<?, ?> record) throws IOException {
+        Entry entry = new Entry(
+            hash(objectId.getBytes(StandardCharsets.UTF_8)),
+            hash(CANONICAL_MAPPER.writeValueAsBytes(record)),
+            objectId
+        );
+
+        long index = this.find(entry.idHash());
+        if (index < 0) {
+            return new Lookup(entry, true);
+        }
+
+        seen.set((int) index);
+
+        return new Lookup(entry, previousHashes.get((int) index * 2 + 1) != entry.contentHash());
+    }
+
+    /**
+     * Save a record in the next state, once it is known to be in the index: either unchanged or accepted by the writer.
+     * A record that is not kept is considered new by the next run.
+     */
+    void keep(Lookup lookup) throws IOException {
+        run.add(lookup.entry());
+        if (run.size() >= runSize) {
+            this.spill();
+        }
+    }
+
+    /**
+     * Save a record of the source that was not sent, such as an oversize record skipped or stored by the writer, with a
+     * content hash that matches nothing: the next run sends it again, and {@code deleteMissing} never deletes it while it
+     * is still in the source, nor forgets to delete it once it is not.
+     */
+    void keepStale(Lookup lookup) throws IOException {
+        Entry entry = lookup.entry();
+        this.keep(new Lookup(new Entry(entry.idHash(), STALE_CONTENT_HASH, entry.objectId()), true));
+    }
+
+    /**
+     * Iterate over the objectIDs of the previous run that were not seen in this run.
+     */
+    void forEachMissing(MissingConsumer consumer) throws Exception {
+        if (previousFile == null) {
+            return;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(previousFile.toFile())))) {
+            input.skipNBytes(HEADER_BYTES + previousCount * 16);
+
+            for (int i = 0; i < previousCount; i++) {
+                byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+
+                if (!seen.get(i)) {
+                    consumer.accept(new String(bytes, StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    /**
+     * Merge the sorted runs of this execution and store them as the state for the next one.
+     */
+    long save() throws IOException {
+        this.spill();
+
+        Path hashes = runContext.workingDir().createTempFile(".hashes");
+        Path ids = runContext.workingDir().createTempFile(".ids");
+        long count = 0;
+
+        List<RunReader> readers = new ArrayList<>(runFiles.size());
+        try (
+            DataOutputStream hashesOutput = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(hashes.toFile())));
+            DataOutputStream idsOutput = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(ids.toFile())))
+        ) {
+            PriorityQueue<RunReader> queue = new PriorityQueue<>(
+                Comparator.<RunReader>comparingLong(reader -> reader.current.idHash()).thenComparingInt(reader -> reader.order)
+            );
+
+            for (int i = 0; i < runFiles.size(); i++) {
+                RunReader reader = new RunReader(runFiles.get(i), i);
+                readers.add(reader);
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+
+            // when an objectID appears several times, the last occurrence is the one Algolia keeps
+            Entry pending = null;
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                Entry entry = reader.current;
+
+                if (pending != null && pending.idHash() != entry.idHash()) {
+                    write(pending, hashesOutput, idsOutput);
+                    count++;
+                }
+                pending = entry;
+
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+
+            if (pending != null) {
+                write(pending, hashesOutput, idsOutput);
+                count++;
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+
+        File state = runContext.workingDir().createTempFile(".state").toFile();
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(state))) {
+            DataOutputStream header = new DataOutputStream(output);
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.writeLong(count);
+            header.flush();
+
+            Files.copy(hashes, output);
+            Files.copy(ids, output);
+        }
+
+        runContext.storage().putCacheFile(state, CACHE_ID, key);
+
+        return count;
+    }
+
+    private long find(long idHash) {
+        long low = 0;
+        long high = previousCount - 1;
+
+        while (low <= high) {
+            long middle = (low + high) >>> 1;
+            long value = previousHashes.get((int) middle * 2);
+
+            if (value < idHash) {
+                low = middle + 1;
+            } else if (value > idHash) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -1;
+    }
+
+    private void spill() throws IOException {
+        if (run.isEmpty()) {
+            return;
+        }
+
+        // stable sort, so duplicates keep their input order inside a run
+        run.sort(Comparator.comparingLong(Entry::idHash));
+
+        Path file = runContext.workingDir().createTempFile(".run");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile())))) {
+            for (Entry entry : run) {
+                output.writeLong(entry.idHash());
+                output.writeLong(entry.contentHash());
+                output.writeUTF(entry.objectId());
+            }
+        }
+
+        runFiles.add(file);
+        run.clear();
+    }
+
+    private static void write(Entry entry, DataOutputStream hashes, DataOutputStream ids) throws IOException {
+        hashes.writeLong(entry.idHash());
+        hashes.writeLong(entry.contentHash());
+
+        byte[] bytes = entry.objectId().getBytes(StandardCharsets.UTF_8);
+        ids.writeInt(bytes.length);
+        ids.write(bytes);
+    }
+
+    static long hash(byte[] bytes) {
+        // digest() resets the instance for the next record
+        return ByteBuffer.wrap(SHA_256.get().digest(bytes)).getLong();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (previousChannel != null) {
+            previousChannel.close();
+        }
+    }
+
+    @FunctionalInterface
+    interface MissingConsumer {
+        void accept(String objectId) throws Exception;
+    }
+
+    record Entry(long idHash, long contentHash, String objectId) {
+    }
+
+    /**
+     * @param changed {@code true} if the record is new or its content changed since the previous run
+     */
+    record Lookup(Entry entry, boolean changed) {
+    }
+
+    private static final class RunReader implements AutoCloseable {
+        private final DataInputStream input;
+        private final int order;
+        private Entry current;
+
+        private RunReader(Path file, int order) throws IOException {
+            this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(file.toFile())));
+            this.order = order;
+        }
+
+        private boolean next() throws IOException {
+            try {
+                current = new Entry(input.readLong(), input.readLong(), input.readUTF());
+                return true;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+}
@@ -1,26 +1,26 @@
 package io.kestra.plugin.algolia;
 
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import com.algolia.api.SearchClient;
 import com.algolia.model.search.Action;
 import com.algolia.model.search.BatchRequest;
-import com.algolia.model.search.BatchResponse;
-import com.algolia.model.search.BatchWriteParams;
-import com.fasterxml.jackson.core.type.TypeReference;
 
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.executions.metrics.Counter;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.runners.RunContext;
-import io.kestra.core.serializers.JacksonMapper;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import lombok.extern.jackson.Jacksonized;
 import io.kestra.core.models.annotations.PluginProperty;
 
 @SuperBuilder
@@ -30,7 +30,7 @@ import io.kestra.core.models.annotations.PluginProperty;
 @EqualsAndHashCode
 @Schema(
     title = "Index or replace Algolia records",
-    description = "Batch-add records to an Algolia index; any object with the same `objectID` is replaced. Runs a single batch write using the Admin API Key."
+    description = "Batch-add records to an Algolia index; any object with the same `objectID` is replaced. Records are provided inline with `objects` or streamed from an internal storage file with `from`, and sent in chunks of `chunkSize` records, with up to `concurrency` batch requests in flight, using the Admin API Key."
 )
 @Plugin(
     examples = {
@@ -72,10 +72,88 @@ import io.kestra.core.models.annotations.PluginProperty;
                       - objectID: "prod_002"
                         name: "Running Shoes"
                 """
+        ),
+        @Example(
+            full = true,
+            title = "Stream a large catalog export from internal storage",
+            code = """
+                id: index_catalog
+                namespace: company.team
+
+                inputs:
+                  - id: catalog
+                    type: FILE
+
+                tasks:
+                  - id: index_catalog
+                    type: io.kestra.plugin.algolia.Index
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    indexName: "products"
+                    from: "{{ inputs.catalog }}"
+                    chunkSize: 1000
+                    concurrency: 8
+                """
+        ),
+        @Example(
+            full = true,
+            title = "Hourly incremental sync that only sends changed records",
+            code = """
+                id: sync_catalog
+                namespace: company.team
+
+                tasks:
+                  - id: export
+                    type: io.kestra.plugin.jdbc.postgresql.Query
+                    url: jdbc:postgresql://localhost:5432/shop
+                    username: "{{ secret('DB_USER') }}"
+                    password: "{{ secret('DB_PASSWORD') }}"
+                    sql: SELECT id AS "objectID", name, price FROM products
+                    fetchType: STORE
+
+                  - id: index_changes
+                    type: io.kestra.plugin.algolia.Index
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    indexName: "products"
+                    from: "{{ outputs.export.uri }}"
+                    incremental: true
+                    deleteMissing: true
+
+                triggers:
+                  - id: hourly
+                    type: io.kestra.plugin.core.trigger.Schedule
+                    cron: "@hourly"
+                """
+        ),
+        @Example(
+            full = true,
+            title = "Write the same catalog to a staging index and to a replica application",
+            code = """
+                id: fan_out_catalog
+                namespace: company.team
+
+                inputs:
+                  - id: catalog
+                    type: FILE
+
+                tasks:
+                  - id: index_catalog
+                    type: io.kestra.plugin.algolia.Index
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    indexName: "products"
+                    from: "{{ inputs.catalog }}"
+                    targets:
+                      - indexName: "products_staging"
+                      - applicationId: "{{ secret('ALGOLIA_EU_APP_ID') }}"
+                        apiKey: "{{ secret('ALGOLIA_EU_API_KEY') }}"
+                        indexName: "products"
+                """
         )
     }
 )
-public class Index extends AbstractAlgoliaTask<Index.Output> implements RunnableTask<Index.Output> {
+public class Index extends AbstractAlgoliaWriteTask<Index.Output> implements RunnableTask<Index.Output> {
     @Schema(
         title = "Target index name",
         description = "Algolia index to write into; must exist or be created beforehand in your application."
@@ -86,33 +164,335 @@ public class Index extends AbstractAlgoliaTask<Index.Output> implements Runnable
 
     @Schema(
         title = "Record objects",
-        description = "List of JSON maps sent as-is to Algolia. If an item includes `objectID`, it will be replaced; otherwise Algolia generates one."
+        description = "List of JSON maps sent as-is to Algolia. If an item includes `objectID`, it will be replaced; otherwise Algolia generates one. Exactly one of `objects` or `from` must be set."
     )
-    @NotNull
     @PluginProperty(group = "main")
     private Property<List<Map<String, Object>>> objects;
 
+    @Schema(
+        title = "Source file URI",
+        description = "Internal storage URI of an ION or JSON Lines file with one record per row. Records are read lazily and sent chunk by chunk, so memory usage does not depend on the file size. Exactly one of `objects` or `from` must be set."
+    )
+    @PluginProperty(group = "main", internalStorageURI = true)
+    private Property<String> from;
+
+    @Schema(
+        title = "Additional target indices",
+        description = "Other indices, possibly in other applications, receiving the same records as `indexName`. Each chunk is built once and sent to every index in parallel, " +
+            "each target with its own retries and rate limits. Cannot be combined with `incremental` or `checkpoint`."
+    )
+    @PluginProperty(group = "advanced")
+    private List<Target> targets;
+
+    @Schema(
+        title = "Ignore errors of additional targets",
+        description = "If `true`, a failing target is reported in the `targets` output and no longer written to, while the other indices are still written to. A failure of `indexName` always fails the task."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> ignoreTargetErrors = Property.ofValue(false);
+
+    @Schema(
+        title = "Split long records",
+        description = "Split a long text attribute into several records of bounded size before they are sent, on paragraph or sentence boundaries. " +
+            "Each chunk is a copy of the record holding one piece of the text, with the objectID `<objectID>-<n>` and the original objectID in `distinctAttribute`; " +
+            "set that attribute as the `attributeForDistinct` of the index and enable `distinct` to get one hit per document. Records are split one at a time while they are streamed. " +
+            "Every record with the text attribute is renamed, even when its text fits in a single chunk (`<objectID>-0`), so its objectIDs stay the same as it grows or shrinks; " +
+            "a record already indexed under its original objectID is left as it is. When a document shrinks to fewer chunks, its extra chunks from earlier runs stay in the index, " +
+            "unless `incremental` and `deleteMissing` are set: they then delete them like any record that is no longer in the source."
+    )
+    @PluginProperty(group = "advanced")
+    private Split split;
+
+    @Schema(
+        title = "Only send added or changed records",
+        description = "Compare a hash of each record with the hashes stored by the previous incremental run of this flow and only send records that are new or changed. Every record must have an `objectID`. The state is stored in the flow cache of the internal storage and only updated when every batch succeeded."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> incremental = Property.ofValue(false);
+
+    @Schema(
+        title = "Incremental state key",
+        description = "Name of the incremental state, to keep several independent states in the same flow. Defaults to the index name."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> stateKey;
+
+    @Schema(
+        title = "Delete records missing from the source",
+        description = "With `incremental`, delete the records that were sent by the previous run but are not part of this one."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> deleteMissing = Property.ofValue(false);
+
+    @Schema(
+        title = "Checkpoint progress to resume after a failure",
+        description = "As batches are acknowledged, save in the namespace KV store the offset up to which every record of the source was acknowledged, " +
+            "every 10 batches or 10 seconds and when the import fails. " +
+            "A retry or restart of the same task run then skips those records instead of sending everything again. The checkpoint is deleted once the import succeeds. Cannot be combined with `incremental`."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> checkpoint = Property.ofValue(false);
+
+    @Schema(
+        title = "Checkpoint KV key",
+        description = "Defaults to a key unique to the flow, the execution and the task, so every execution starts its own import."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> checkpointKey;
+
     @Override
     public Output run(RunContext runContext) throws Exception {
-        try (SearchClient client = this.client(runContext)) {
+        try (AlgoliaClientCache.Lease lease = this.client(runContext)) {
+            SearchClient client = lease.client();
             String rIndexName = runContext.render(indexName).as(String.class).orElseThrow();
-            List<Map<String, Object>> rObjects = runContext.render(objects).asList(Map.class);
 
-            List<BatchRequest> batchRequests = rObjects.stream()
-                .map(obj -> new BatchRequest().setAction(Action.ADD_OBJECT).setBody(obj))
-                .toList();
+            RecordSplitter splitter = split != null ? split.splitter(runContext) : null;
+
+            Output output = this.records(runContext, objects, from, rows -> this.index(runContext, client, rIndexName, splitter != null ? splitter.split(rows) : rows));
+
+            if (splitter != null) {
+                runContext.metric(Counter.of("split.records", splitter.records(), "index", rIndexName));
+                runContext.metric(Counter.of("split.chunks", splitter.chunks(), "index", rIndexName));
+                runContext.logger().info("Split {} record(s) into {} chunk(s)", splitter.records(), splitter.chunks());
+            }
+
+            return output;
+        }
+    }
+
+    private Output index(RunContext runContext, SearchClient client, String indexName, Iterable<?> rows) throws Exception {
+        boolean rIncremental = runContext.render(incremental).as(Boolean.class).orElse(false);
+        boolean rCheckpoint = runContext.render(checkpoint).as(Boolean.class).orElse(false);
+
+        if (rIncremental && rCheckpoint) {
+            throw new IllegalArgumentException("'checkpoint' cannot be combined with 'incremental'");
+        }
+
+        if (targets != null && !targets.isEmpty()) {
+            if (rIncremental || rCheckpoint) {
+                throw new IllegalArgumentException("'targets' cannot be combined with 'incremental' or 'checkpoint'");
+            }
 
-            BatchWriteParams params = new BatchWriteParams().setRequests(batchRequests);
-            BatchResponse response = client.batch(rIndexName, params);
+            return this.fanOut(runContext, client, indexName, rows);
+        }
+
+        if (rCheckpoint) {
+            return this.resumable(runContext, client, indexName, rows);
+        }
 
-            runContext.logger().info("Indexed {} Algolia record(s) into index '{}'", rObjects.size(), rIndexName);
+        if (!rIncremental) {
+            BatchWriter.Result result;
+            try (BatchWriter writer = this.writer(runContext, client, indexName)) {
+                for (Object row : rows) {
+                    writer.add(this.request(row));
+                }
 
-            Map<String, Object> result = JacksonMapper.ofJson().convertValue(response, new TypeReference<>() {
-            });
+                result = writer.finish();
+            }
 
-            return Output.builder()
-                .result(result)
-                .build();
+            runContext.logger().info("Indexed {} Algolia record(s) into index '{}' in {} batch(es)", result.count(), indexName, result.taskIds().size());
+
+            return this.output(result).build();
+        }
+
+        String rStateKey = runContext.render(stateKey).as(String.class).orElse(indexName);
+        boolean rDeleteMissing = runContext.render(deleteMissing).as(Boolean.class).orElse(false);
+
+        BatchWriter.Result result;
+        long unchanged = 0;
+        long deleted = 0;
+
+        try (
+            IncrementalState state = IncrementalState.load(runContext, rStateKey);
+            BatchWriter writer = this.writer(runContext, client, indexName)
+        ) {
+            for (Object row : rows) {
+                BatchRequest request = this.request(row);
+                Map<?, ?> body = (Map<?, ?>) request.getBody();
+
+                if (body.get("objectID") == null) {
+                    throw new IllegalArgumentException("Incremental indexing requires an 'objectID' on every record");
+                }
+
+                IncrementalState.Lookup lookup = state.lookup(body.get("objectID").toString(), body);
+                if (!lookup.changed()) {
+                    state.keep(lookup);
+                    unchanged++;
+                } else if (writer.add(request)) {
+                    state.keep(lookup);
+                } else {
+                    // an oversize record skipped or stored by the writer is still in the source: retried by the next run, never deleted
+                    state.keepStale(lookup);
+                }
+            }
+
+            if (rDeleteMissing) {
+                long[] missing = {0};
+                state.forEachMissing(objectId -> {
+                    writer.add(new BatchRequest().setAction(Action.DELETE_OBJECT).setBody(Map.of("objectID", objectId)));
+                    missing[0]++;
+                });
+                deleted = missing[0];
+            }
+
+            result = writer.finish();
+            state.save();
+        }
+
+        runContext.logger().info(
+            "Incrementally indexed Algolia index '{}': {} record(s) sent ({} deleted), {} unchanged, in {} batch(es)",
+            indexName, result.count(), deleted, unchanged, result.taskIds().size()
+        );
+
+        return this.output(result)
+            .unchanged(unchanged)
+            .deleted(deleted)
+            .build();
+    }
+
+    private Output fanOut(RunContext runContext, SearchClient client, String indexName, Iterable<?> rows) throws Exception {
+        List<FanOutWriter.Outcome> outcomes;
+        try (FanOutWriter writer = this.writer(runContext, client, indexName, targets)) {
+            for (Object row : rows) {
+                writer.add(this.request(row));
+            }
+
+            outcomes = writer.finish();
+        }
+
+        BatchWriter.Result result = outcomes.getFirst().result();
+        List<TargetOutput> targetOutputs = targetOutputs(outcomes, runContext.render(ignoreTargetErrors).as(Boolean.class).orElse(false));
+
+        runContext.logger().info(
+            "Indexed {} Algolia record(s) into index '{}' and {} other target(s) in {} batch(es)",
+            result.count(), indexName, targetOutputs.size(), result.taskIds().size()
+        );
+
+        return this.output(result)
+            .targets(targetOutputs)
+            .build();
+    }
+
+    private Output resumable(RunContext runContext, SearchClient client, String indexName, Iterable<?> rows) throws Exception {
+        String rCheckpointKey = runContext.render(checkpointKey).as(String.class).orElse(this.defaultCheckpointKey(runContext));
+        String source = indexName + "|" + runContext.render(from).as(String.class).orElse("objects");
+
+        ImportCheckpoint state = ImportCheckpoint.load(runContext, rCheckpointKey, source);
+        BatchWriter.Result result;
+
+        try (BatchWriter writer = new BatchWriter(runContext, client, indexName, this.writerOptions(runContext).checkpoint(state).build())) {
+            long skip = state.resumedFrom();
+            for (Object row : rows) {
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+
+                writer.add(this.request(row));
+            }
+
+            result = writer.finish();
+        } catch (Exception e) {
+            // the writer is closed, so every chunk still in flight is acknowledged: keep them for the next attempt
+            state.flush();
+
+            throw e;
+        }
+
+        state.delete();
+
+        List<Long> taskIds = new ArrayList<>(state.previousTaskIds());
+        taskIds.addAll(result.taskIds());
+
+        runContext.logger().info(
+            "Indexed {} Algolia record(s) into index '{}' in {} batch(es), after {} record(s) acknowledged by previous attempts",
+            result.count(), indexName, result.taskIds().size(), state.resumedFrom()
+        );
+
+        return this.output(result)
+            .taskIds(taskIds)
+            .resumedFrom(state.resumedFrom())
+            .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private String defaultCheckpointKey(RunContext runContext) {
+        Map<String, Object> execution = (Map<String, Object>) runContext.getVariables().get("execution");
+        String key = "algolia_checkpoint_" + runContext.flowInfo().id() + "_" + execution.get("id") + "_" + this.getId();
+
+        // KV keys only allow letters, digits, dots, dashes and underscores
+        return key.replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+
+    private Output.OutputBuilder output(BatchWriter.Result result) {
+        return Output.builder()
+            .count(result.count())
+            .batches(result.taskIds().size())
+            .taskIds(result.taskIds())
+            .oversizeCount(result.oversizeCount())
+            .oversizeUri(result.oversizeUri());
+    }
+
+    private BatchRequest request(Object row) {
+        if (!(row instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException("Invalid record, expected an object but got '" + row + "'");
+        }
+
+        return new BatchRequest().setAction(Action.ADD_OBJECT).setBody(map);
+    }
+
+    @Builder
+    @Getter
+    @Jacksonized
+    public static class Split {
+        @Schema(
+            title = "Text attribute to split",
+            description = "Records where this attribute is not a string are sent as they are."
+        )
+        @NotNull
+        private Property<String> attribute;
+
+        @Schema(
+            title = "Maximum size of the text in a chunk",
+            description = "In UTF-8 bytes; leave room for the other attributes, copied in every chunk, under the record size limit of your Algolia plan."
+        )
+        @Builder.Default
+        private Property<Integer> maxBytes = Property.ofValue(10 * 1024);
+
+        @Schema(
+            title = "Where to cut the text",
+            description = """
+                - `PARAGRAPH`: chunks hold whole paragraphs, a paragraph over `maxBytes` being cut between sentences.
+                - `SENTENCE`: chunks are filled sentence by sentence, across paragraphs.
+                A sentence over `maxBytes` is cut between words.
+                """
+        )
+        @Builder.Default
+        private Property<Boundary> boundary = Property.ofValue(Boundary.PARAGRAPH);
+
+        @Schema(
+            title = "Attribute holding the original objectID",
+            description = "Grouping key shared by the chunks of a record."
+        )
+        @Builder.Default
+        private Property<String> distinctAttribute = Property.ofValue("parentObjectID");
+
+        RecordSplitter splitter(RunContext runContext) throws Exception {
+            return new RecordSplitter(
+                runContext.render(attribute).as(String.class).orElseThrow(() -> new IllegalArgumentException("'split.attribute' must be set")),
+                runContext.render(maxBytes).as(Integer.class).orElse(10 * 1024),
+                runContext.render(boundary).as(Boundary.class).orElse(Boundary.PARAGRAPH),
+                runContext.render(distinctAttribute).as(String.class).orElse("parentObjectID")
+            );
+        }
+
+        public enum Boundary {
+            PARAGRAPH,
+            SENTENCE
         }
     }
 
@@ -120,9 +500,58 @@ public class Index extends AbstractAlgoliaTask<Index.Output> implements Runnable
     @Getter
     public static class Output implements io.kestra.core.models.tasks.Output {
         @Schema(
-            title = "Raw batch response",
-            description = "Full response returned by Algolia batch write, including taskID and objectIDs."
+            title = "Number of records sent",
+            description = "Total number of records sent to Algolia across all batch requests."
+        )
+        private final Long count;
+
+        @Schema(
+            title = "Number of batch requests",
+            description = "Number of batch requests sent to Algolia, one per chunk."
+        )
+        private final Integer batches;
+
+        @Schema(
+            title = "Batch task IDs",
+            description = "Algolia taskID returned for each batch request, in the order the chunks were sent."
+        )
+        private final List<Long> taskIds;
+
+        @Schema(
+            title = "Number of oversize records",
+            description = "Records over `maxRecordBytes` that were not sent to Algolia."
+        )
+        private final Long oversizeCount;
+
+        @Schema(
+            title = "Oversize records file",
+            description = "Internal storage URI of the records over `maxRecordBytes`, only set when `onOversizeRecord` is `STORE`."
+        )
+        private final URI oversizeUri;
+
+        @Schema(
+            title = "Number of unchanged records",
+            description = "Records skipped by `incremental` because they did not change since the previous run."
+        )
+        private final Long unchanged;
+
+        @Schema(
+            title = "Number of deleted records",
+            description = "Records deleted by `deleteMissing` because they are no longer part of the source."
+        )
+        private final Long deleted;
+
+        @Schema(
+            title = "Number of records skipped on resume",
+            description = "With `checkpoint`, records acknowledged by previous attempts of this task run and not sent again; " +
+                "`taskIds` then starts with the latest taskID of those attempts, which covers their earlier batches."
+        )
+        private final Long resumedFrom;
+
+        @Schema(
+            title = "Results of the additional targets",
+            description = "One entry per item of `targets`, in the same order; the other outputs are about `indexName`."
         )
-        private final Map<String, Object> result;
+        private final List<TargetOutput> targets;
     }
 }
@@ -0,0 +1,42 @@
+package io.kestra.plugin.algolia;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.runners.RunContext;
+
+/**
+ * Request latencies recorded from any thread and reported as a few aggregated metrics.
+ * <p>
+ * The run context is not meant to be used concurrently, and one metric per request would flood the execution of a
+ * large run, so requests only {@link #record(long)} here and the task thread calls {@link #report} once.
+ */
+final class Latencies {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    void record(long nanos) {
+        count.increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * Report the number of requests as {@code <name>.count}, their total duration as {@code <name>} and the longest
+     * one as {@code <name>.max}; nothing if no request was recorded.
+     */
+    void report(RunContext runContext, String name, String... tags) {
+        long requests = count.sum();
+        if (requests == 0) {
+            return;
+        }
+
+        runContext.metric(Counter.of(name + ".count", requests, tags));
+        runContext.metric(Timer.of(name, Duration.ofNanos(total.sum()), tags));
+        runContext.metric(Timer.of(name + ".max", Duration.ofNanos(max.get()), tags));
+    }
+}
@@ -0,0 +1,189 @@
+package io.kestra.plugin.algolia;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.algolia.api.SearchClient;
+import com.algolia.model.search.SearchForHits;
+import com.algolia.model.search.SearchMethodParams;
+import com.algolia.model.search.SearchQuery;
+import com.algolia.model.search.SearchResponse;
+import com.algolia.model.search.SearchResponses;
+import com.algolia.model.search.SearchResult;
+import com.algolia.model.search.SearchStrategy;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import lombok.extern.jackson.Jacksonized;
+import io.kestra.core.models.annotations.PluginProperty;
+
+@SuperBuilder
+@Getter
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+@Schema(
+    title = "Run several Algolia queries in one request",
+    description = "Sends a list of queries, possibly on different indices, through the Algolia multi-query endpoint in a single HTTP round-trip and returns the hits of each query in order. Uses the Admin API Key."
+)
+@Plugin(
+    examples = {
+        @Example(
+            full = true,
+            title = "Search products and articles at once",
+            code = """
+                id: multi_search
+                namespace: company.team
+
+                tasks:
+                  - id: multi_search
+                    type: io.kestra.plugin.algolia.MultiSearch
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    strategy: STOP_IF_ENOUGH_MATCHES
+                    queries:
+                      - indexName: "products"
+                        params:
+                          query: "t-shirt"
+                          hitsPerPage: 5
+                      - indexName: "articles"
+                        params:
+                          query: "t-shirt"
+                          hitsPerPage: 3
+                """
+        )
+    }
+)
+public class MultiSearch extends AbstractAlgoliaTask<MultiSearch.Output> implements RunnableTask<MultiSearch.Output> {
+    @Schema(
+        title = "Queries to run",
+        description = "Each query targets one index with its own search parameters; results are returned in the same order."
+    )
+    @NotEmpty
+    @PluginProperty(group = "main")
+    private List<Query> queries;
+
+    @Schema(
+        title = "Multi-query strategy",
+        description = "`NONE` runs every query; `STOP_IF_ENOUGH_MATCHES` runs them in order and stops as soon as one returns enough hits to fill its page."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Strategy> strategy = Property.ofValue(Strategy.NONE);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        try (AlgoliaClientCache.Lease lease = this.client(runContext)) {
+            SearchClient client = lease.client();
+
+            List<SearchQuery> requests = new ArrayList<>(queries.size());
+            for (Query query : queries) {
+                Map<String, Object> body = new HashMap<>(runContext.render(query.getParams()).asMap(String.class, Object.class));
+                body.put("indexName", runContext.render(query.getIndexName()).as(String.class).orElseThrow());
+
+                requests.add(JacksonMapper.ofJson().convertValue(body, SearchForHits.class));
+            }
+
+            Strategy rStrategy = runContext.render(strategy).as(Strategy.class).orElse(Strategy.NONE);
+
+            long start = System.nanoTime();
+            SearchResponses<ObjectNode> responses = client.search(
+                new SearchMethodParams()
+                    .setRequests(requests)
+                    .setStrategy(rStrategy.searchStrategy),
+                ObjectNode.class
+            );
+
+            List<Result> results = new ArrayList<>(responses.getResults().size());
+            for (SearchResult<ObjectNode> result : responses.getResults()) {
+                // every request is a search for hits, so every result is a search response, in the order of the queries
+                SearchResponse<ObjectNode> response = (SearchResponse<ObjectNode>) result;
+
+                results.add(Result.builder()
+                    .indexName(response.getIndex())
+                    .nbHits(response.getNbHits())
+                    .hits(response.getHits())
+                    .build()
+                );
+            }
+
+            runContext.metric(Timer.of("request.duration", Duration.ofNanos(System.nanoTime() - start), "operation", "multi_search"));
+            runContext.metric(Counter.of("queries", requests.size(), "operation", "multi_search"));
+            for (Result result : results) {
+                runContext.metric(Counter.of("hits", result.getHits().size(), "index", result.getIndexName(), "operation", "multi_search"));
+            }
+
+            runContext.logger().info("Ran {} Algolia queries in a single request", results.size());
+
+            return Output.builder()
+                .results(results)
+                .build();
+        }
+    }
+
+    @Builder
+    @Getter
+    @Jacksonized
+    public static class Query {
+        @Schema(
+            title = "Target index name",
+            description = "Algolia index to query within the configured application."
+        )
+        @NotNull
+        private Property<String> indexName;
+
+        @Schema(
+            title = "Search parameters",
+            description = "Any Algolia search params (query, hitsPerPage, filters, facets, etc.)."
+        )
+        private Property<Map<String, Object>> params;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public enum Strategy {
+        NONE(SearchStrategy.NONE),
+        STOP_IF_ENOUGH_MATCHES(SearchStrategy.STOP_IF_ENOUGH_MATCHES);
+
+        private final SearchStrategy searchStrategy;
+    }
+
+    @Builder
+    @Getter
+    public static class Result {
+        @Schema(title = "Queried index name")
+        private final String indexName;
+
+        @Schema(title = "Number of hits")
+        private final Integer nbHits;
+
+        @Schema(title = "Search results (hits)")
+        private final List<ObjectNode> hits;
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "Query results",
+            description = "One entry per query, in the order of `queries`."
+        )
+        private final List<Result> results;
+    }
+}
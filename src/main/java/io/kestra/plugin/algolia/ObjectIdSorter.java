@@ -0,0 +1,206 @@
+package io.kestra.plugin.algolia;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+
+/**
+ * External sort of objectIDs, so that sets of tens of millions of IDs can be compared without holding them in memory.
+ * <p>
+ * IDs are buffered in runs of {@link #RUN_SIZE}, each run is sorted and spilled to a temporary file. The first call to
+ * {@link #sorted()} merges the runs, at most {@link #MAX_FAN_IN} at a time, into a single sorted file without
+ * duplicates, so the number of open files stays bounded whatever the number of IDs; every cursor then reads that file
+ * with a single stream, closed with the cursor.
+ * Not thread-safe: each producer needs its own sorter.
+ */
+class ObjectIdSorter implements AutoCloseable {
+    static final int RUN_SIZE = 100_000;
+    static final int MAX_FAN_IN = 64;
+
+    private final RunContext runContext;
+    private final int runSize;
+    private final List<String> run;
+    // every file of this sorter still on disk
+    private final List<Path> files = new ArrayList<>();
+    private final List<Cursor> cursors = new ArrayList<>();
+
+    private Path merged;
+
+    ObjectIdSorter(RunContext runContext) {
+        this(runContext, RUN_SIZE);
+    }
+
+    ObjectIdSorter(RunContext runContext, int runSize) {
+        this.runContext = runContext;
+        this.runSize = runSize;
+        this.run = new ArrayList<>(runSize);
+    }
+
+    void add(String objectId) throws IOException {
+        if (merged != null) {
+            throw new IllegalStateException("No objectID can be added once sorted");
+        }
+
+        run.add(objectId);
+
+        if (run.size() >= runSize) {
+            this.spill();
+        }
+    }
+
+    /**
+     * Read the distinct IDs in ascending order; no ID can be added afterward, but the IDs can be read again by another
+     * call. Close the cursor once done.
+     */
+    Cursor sorted() throws IOException {
+        if (merged == null) {
+            this.spill();
+
+            List<Path> level = new ArrayList<>(files);
+            while (level.size() > 1) {
+                List<Path> next = new ArrayList<>();
+                for (int i = 0; i < level.size(); i += MAX_FAN_IN) {
+                    next.add(this.merge(level.subList(i, Math.min(i + MAX_FAN_IN, level.size()))));
+                }
+                level = next;
+            }
+
+            merged = level.isEmpty() ? this.createFile() : level.getFirst();
+        }
+
+        Cursor cursor = new Cursor(new DataInputStream(new BufferedInputStream(Files.newInputStream(merged), FileSerde.BUFFER_SIZE)));
+        cursors.add(cursor);
+
+        return cursor;
+    }
+
+    private void spill() throws IOException {
+        if (run.isEmpty()) {
+            return;
+        }
+
+        run.sort(null);
+
+        Path file = this.createFile();
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), FileSerde.BUFFER_SIZE))) {
+            String previous = null;
+            for (String objectId : run) {
+                if (!objectId.equals(previous)) {
+                    output.writeUTF(objectId);
+                }
+                previous = objectId;
+            }
+        }
+
+        run.clear();
+    }
+
+    /**
+     * Merge sorted files into a new one without duplicates, then delete them.
+     */
+    private Path merge(List<Path> inputs) throws IOException {
+        Path file = this.createFile();
+        List<DataInputStream> readers = new ArrayList<>(inputs.size());
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), FileSerde.BUFFER_SIZE))) {
+            PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(Head::value));
+            for (Path input : inputs) {
+                DataInputStream reader = new DataInputStream(new BufferedInputStream(Files.newInputStream(input), FileSerde.BUFFER_SIZE));
+                readers.add(reader);
+
+                Head head = Head.read(reader);
+                if (head != null) {
+                    heads.add(head);
+                }
+            }
+
+            String last = null;
+            while (!heads.isEmpty()) {
+                Head head = heads.poll();
+
+                Head following = Head.read(head.input());
+                if (following != null) {
+                    heads.add(following);
+                }
+
+                if (!head.value().equals(last)) {
+                    last = head.value();
+                    output.writeUTF(last);
+                }
+            }
+        } finally {
+            for (DataInputStream reader : readers) {
+                reader.close();
+            }
+        }
+
+        for (Path input : List.copyOf(inputs)) {
+            Files.deleteIfExists(input);
+            files.remove(input);
+        }
+
+        return file;
+    }
+
+    private Path createFile() throws IOException {
+        Path file = runContext.workingDir().createTempFile(".ids");
+        files.add(file);
+
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Cursor cursor : cursors) {
+            cursor.close();
+        }
+
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    static final class Cursor implements AutoCloseable {
+        private final DataInputStream input;
+
+        private Cursor(DataInputStream input) {
+            this.input = input;
+        }
+
+        /**
+         * @return the next distinct ID in ascending order, or {@code null} once every ID was read
+         */
+        String next() throws IOException {
+            Head head = Head.read(input);
+
+            return head != null ? head.value() : null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+
+    private record Head(String value, DataInputStream input) {
+        static Head read(DataInputStream input) throws IOException {
+            try {
+                return new Head(input.readUTF(), input);
+            } catch (EOFException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package io.kestra.plugin.algolia;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import com.algolia.api.SearchClient;
+import com.algolia.model.search.Action;
+import com.algolia.model.search.BatchRequest;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import io.kestra.core.models.annotations.PluginProperty;
+
+@SuperBuilder
+@Getter
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+@Schema(
+    title = "Partially update Algolia records",
+    description = "Batch-update only the given attributes of existing records, identified by `objectID`; other attributes are left untouched. " +
+        "An attribute value can also be a built-in operation such as `{\"_operation\": \"Increment\", \"value\": 1}` (`Increment`, `Decrement`, `Add`, `Remove`, `AddUnique`, `IncrementFrom`, `IncrementSet`). " +
+        "Records are sent in chunks, like `Index`, using the Admin API Key."
+)
+@Plugin(
+    examples = {
+        @Example(
+            full = true,
+            title = "Update prices and decrement stock",
+            code = """
+                id: update_prices
+                namespace: company.team
+
+                tasks:
+                  - id: update_prices
+                    type: io.kestra.plugin.algolia.PartialUpdate
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    indexName: "products"
+                    createIfNotExists: false
+                    objects:
+                      - objectID: "prod_001"
+                        price: 19.99
+                        stock:
+                          _operation: Decrement
+                          value: 1
+                      - objectID: "prod_002"
+                        tags:
+                          _operation: AddUnique
+                          value: "sale"
+                """
+        ),
+        @Example(
+            full = true,
+            title = "Stream price updates from internal storage",
+            code = """
+                id: sync_prices
+                namespace: company.team
+
+                inputs:
+                  - id: prices
+                    type: FILE
+
+                tasks:
+                  - id: sync_prices
+                    type: io.kestra.plugin.algolia.PartialUpdate
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    indexName: "products"
+                    from: "{{ inputs.prices }}"
+                    concurrency: 8
+                """
+        )
+    }
+)
+public class PartialUpdate extends AbstractAlgoliaWriteTask<PartialUpdate.Output> implements RunnableTask<PartialUpdate.Output> {
+    @Schema(
+        title = "Target index name",
+        description = "Algolia index holding the records to update."
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> indexName;
+
+    @Schema(
+        title = "Partial records",
+        description = "List of JSON maps, each with an `objectID` and only the attributes to update. Exactly one of `objects` or `from` must be set."
+    )
+    @PluginProperty(group = "main")
+    private Property<List<Map<String, Object>>> objects;
+
+    @Schema(
+        title = "Source file URI",
+        description = "Internal storage URI of an ION or JSON Lines file with one partial record per row, read lazily. Exactly one of `objects` or `from` must be set."
+    )
+    @PluginProperty(group = "main", internalStorageURI = true)
+    private Property<String> from;
+
+    @Schema(
+        title = "Create missing records",
+        description = "If `true`, an update for an objectID that does not exist creates a record with the given attributes (`partialUpdateObject`). If `false`, such updates are ignored (`partialUpdateObjectNoCreate`)."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> createIfNotExists = Property.ofValue(true);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        try (AlgoliaClientCache.Lease lease = this.client(runContext)) {
+            SearchClient client = lease.client();
+            String rIndexName = runContext.render(indexName).as(String.class).orElseThrow();
+            Action action = runContext.render(createIfNotExists).as(Boolean.class).orElse(true) ?
+                Action.PARTIAL_UPDATE_OBJECT :
+                Action.PARTIAL_UPDATE_OBJECT_NO_CREATE;
+
+            BatchWriter.Result result = this.records(runContext, objects, from, rows -> {
+                try (BatchWriter writer = this.writer(runContext, client, rIndexName)) {
+                    for (Object row : rows) {
+                        if (!(row instanceof Map<?, ?> map) || map.get("objectID") == null) {
+                            throw new IllegalArgumentException("Invalid partial record, expected an object with an 'objectID' but got '" + row + "'");
+                        }
+
+                        writer.add(new BatchRequest().setAction(action).setBody(map));
+                    }
+
+                    return writer.finish();
+                }
+            });
+
+            runContext.logger().info("Partially updated {} Algolia record(s) in index '{}' in {} batch(es)", result.count(), rIndexName, result.taskIds().size());
+
+            return Output.builder()
+                .count(result.count())
+                .batches(result.taskIds().size())
+                .taskIds(result.taskIds())
+                .oversizeCount(result.oversizeCount())
+                .oversizeUri(result.oversizeUri())
+                .build();
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "Number of records sent",
+            description = "Total number of partial records sent to Algolia across all batch requests."
+        )
+        private final Long count;
+
+        @Schema(
+            title = "Number of batch requests",
+            description = "Number of batch requests sent to Algolia, one per chunk."
+        )
+        private final Integer batches;
+
+        @Schema(
+            title = "Batch task IDs",
+            description = "Algolia taskID returned for each batch request, in the order the chunks were sent."
+        )
+        private final List<Long> taskIds;
+
+        @Schema(
+            title = "Number of oversize records",
+            description = "Partial records over `maxRecordBytes` that were not sent to Algolia."
+        )
+        private final Long oversizeCount;
+
+        @Schema(
+            title = "Oversize records file",
+            description = "Internal storage URI of the partial records over `maxRecordBytes`, only set when `onOversizeRecord` is `STORE`."
+        )
+        private final URI oversizeUri;
+    }
+}
@@ -0,0 +1,235 @@
+package io.kestra.plugin.algolia;
+
+import java.nio.charset.StandardCharsets;
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.regex.Pattern;
+
+/**
+ * Splits the long text attribute of records into several records of bounded size, as Algolia recommends for large
+ * documents.
+ * <p>
+ * The text is cut on paragraph or sentence boundaries, falling back to sentences, then words, then characters for a
+ * piece that does not fit in {@code maxBytes} on its own. Each chunk is a copy of the record holding one piece of the
+ * text, with the objectID {@code <objectID>-<n>} and the original objectID in {@code distinctAttribute}, to be used as
+ * the {@code attributeForDistinct} of the index. Records without the text attribute are kept as they are.
+ * <p>
+ * A record with the text attribute is always renamed, to {@code <objectID>-0} when it fits in a single chunk, so the
+ * objectIDs of a document do not depend on its length. The splitter only sees the current version of a document: the
+ * chunks an earlier, longer version left in the index are not deleted here but by {@code incremental} with
+ * {@code deleteMissing}, as they are no longer produced.
+ * <p>
+ * Records are split one at a time while the source is iterated, so memory use does not depend on the source size.
+ */
+class RecordSplitter {
+    private static final Pattern PARAGRAPHS = Pattern.compile("\\n\\s*\\n");
+    private static final Pattern WORDS = Pattern.compile("\\s+");
+    private static final String PARAGRAPH_SEPARATOR = "\n\n";
+    private static final String SENTENCE_SEPARATOR = " ";
+
+    private final String attribute;
+    private final int maxBytes;
+    private final Index.Split.Boundary boundary;
+    private final String distinctAttribute;
+
+    private long records = 0;
+    private long chunks = 0;
+
+    RecordSplitter(String attribute, int maxBytes, Index.Split.Boundary boundary, String distinctAttribute) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("'maxBytes' must be greater than 0");
+        }
+
+        this.attribute = attribute;
+        this.maxBytes = maxBytes;
+        this.boundary = boundary;
+        this.distinctAttribute = distinctAttribute;
+    }
+
+    /**
+     * Lazily split every row of {@code rows}.
+     */
+    Iterable<Object> split(Iterable<?> rows) {
+        return () -> new Iterator<>() {
+            private final Iterator<?> source = rows.iterator();
+            private Iterator<?> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && source.hasNext()) {
+                    current = RecordSplitter.this.split(source.next()).iterator();
+                }
+
+                return current.hasNext();
+            }
+
+            @Override
+            public Object next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                return current.next();
+            }
+        };
+    }
+
+    List<?> split(Object row) {
+        if (!(row instanceof Map<?, ?> record) || !(record.get(attribute) instanceof String text)) {
+            return List.of(row);
+        }
+
+        if (record.get("objectID") == null) {
+            throw new IllegalArgumentException("Splitting requires an 'objectID' on every record with a '" + attribute + "' attribute");
+        }
+
+        String objectId = record.get("objectID").toString();
+        List<String> pieces = this.chunks(text);
+        List<Map<String, Object>> split = new ArrayList<>(pieces.size());
+
+        for (int i = 0; i < pieces.size(); i++) {
+            Map<String, Object> chunk = new LinkedHashMap<>();
+            record.forEach((key, value) -> chunk.put(String.valueOf(key), value));
+            chunk.put("objectID", objectId + "-" + i);
+            chunk.put(attribute, pieces.get(i));
+            chunk.put(distinctAttribute, objectId);
+
+            split.add(chunk);
+        }
+
+        records++;
+        chunks += split.size();
+
+        return split;
+    }
+
+    /**
+     * Pieces of {@code text} of at most {@code maxBytes} UTF-8 bytes each; a single empty piece for an empty text.
+     */
+    List<String> chunks(String text) {
+        Packer packer = new Packer();
+
+        boolean first = true;
+        for (String block : PARAGRAPHS.split(text.strip())) {
+            String paragraph = block.strip();
+            String separator = first ? "" : PARAGRAPH_SEPARATOR;
+            first = false;
+
+            if (boundary == Index.Split.Boundary.PARAGRAPH && bytes(paragraph) <= maxBytes) {
+                packer.add(paragraph, separator);
+            } else {
+                this.sentences(paragraph, separator, packer);
+            }
+        }
+
+        return packer.finish();
+    }
+
+    private void sentences(String paragraph, String separator, Packer packer) {
+        BreakIterator sentences = BreakIterator.getSentenceInstance(Locale.ROOT);
+        sentences.setText(paragraph);
+
+        int start = sentences.first();
+        for (int end = sentences.next(); end != BreakIterator.DONE; start = end, end = sentences.next()) {
+            String sentence = paragraph.substring(start, end).strip();
+            if (sentence.isEmpty()) {
+                continue;
+            }
+
+            if (bytes(sentence) <= maxBytes) {
+                packer.add(sentence, separator);
+            } else {
+                this.words(sentence, separator, packer);
+            }
+
+            separator = SENTENCE_SEPARATOR;
+        }
+    }
+
+    private void words(String sentence, String separator, Packer packer) {
+        for (String word : WORDS.split(sentence)) {
+            if (bytes(word) <= maxBytes) {
+                packer.add(word, separator);
+            } else {
+                // a single word over the limit, such as a long URL, is cut between code points
+                int start = 0;
+                int size = 0;
+                for (int i = 0; i < word.length(); ) {
+                    int codePoint = word.codePointAt(i);
+                    int codePointBytes = bytes(new String(Character.toChars(codePoint)));
+
+                    if (size > 0 && size + codePointBytes > maxBytes) {
+                        packer.add(word.substring(start, i), separator);
+                        start = i;
+                        size = 0;
+                    }
+
+                    size += codePointBytes;
+                    i += Character.charCount(codePoint);
+                }
+
+                packer.add(word.substring(start), separator);
+            }
+
+            separator = SENTENCE_SEPARATOR;
+        }
+    }
+
+    long records() {
+        return records;
+    }
+
+    long chunks() {
+        return chunks;
+    }
+
+    private static int bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Greedily packs pieces that each fit in {@code maxBytes} into as few chunks as possible, keeping their order.
+     */
+    private final class Packer {
+        private final List<String> chunks = new ArrayList<>();
+        private final StringBuilder chunk = new StringBuilder();
+        private int chunkBytes = 0;
+
+        void add(String piece, String separator) {
+            int pieceBytes = bytes(piece);
+
+            if (chunkBytes > 0 && chunkBytes + bytes(separator) + pieceBytes > maxBytes) {
+                this.flush();
+            }
+
+            if (chunkBytes > 0) {
+                chunk.append(separator);
+                chunkBytes += bytes(separator);
+            }
+
+            chunk.append(piece);
+            chunkBytes += pieceBytes;
+        }
+
+        List<String> finish() {
+            if (chunkBytes > 0 || chunks.isEmpty()) {
+                this.flush();
+            }
+
+            return chunks;
+        }
+
+        private void flush() {
+            chunks.add(chunk.toString());
+            chunk.setLength(0);
+            chunkBytes = 0;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package io.kestra.plugin.algolia;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.algolia.api.SearchClient;
+import com.algolia.model.search.Action;
+import com.algolia.model.search.BatchRequest;
+import com.algolia.model.search.IndexSettings;
+import com.algolia.model.search.OperationIndexParams;
+import com.algolia.model.search.OperationType;
+import com.algolia.model.search.ScopeType;
+import com.algolia.model.search.UpdatedAtResponse;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import io.kestra.core.models.annotations.PluginProperty;
+
+@SuperBuilder
+@Getter
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+@Schema(
+    title = "Atomically replace every record of an Algolia index",
+    description = "Rebuilds an index without ever serving it half-built: settings, synonyms and rules are copied to a temporary index, " +
+        "records are written to it with parallel batches while their indexing status is polled, and once every batch is indexed the temporary index is moved over the target in a single atomic operation. " +
+        "If anything fails, the temporary index is deleted and the target index is left untouched. Uses the Admin API Key."
+)
+@Plugin(
+    examples = {
+        @Example(
+            full = true,
+            title = "Rebuild the product index from a nightly export",
+            code = """
+                id: rebuild_products
+                namespace: company.team
+
+                inputs:
+                  - id: catalog
+                    type: FILE
+
+                tasks:
+                  - id: rebuild
+                    type: io.kestra.plugin.algolia.ReplaceAllObjects
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    indexName: "products"
+                    from: "{{ inputs.catalog }}"
+                    concurrency: 16
+                """
+        )
+    }
+)
+public class ReplaceAllObjects extends AbstractAlgoliaWriteTask<ReplaceAllObjects.Output> implements RunnableTask<ReplaceAllObjects.Output> {
+    @Schema(
+        title = "Target index name",
+        description = "Algolia index whose records are replaced; it is created if it does not exist yet."
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> indexName;
+
+    @Schema(
+        title = "Record objects",
+        description = "List of JSON maps making up the full new content of the index. Exactly one of `objects` or `from` must be set."
+    )
+    @PluginProperty(group = "main")
+    private Property<List<Map<String, Object>>> objects;
+
+    @Schema(
+        title = "Source file URI",
+        description = "Internal storage URI of an ION or JSON Lines file with one record per row, making up the full new content of the index. Exactly one of `objects` or `from` must be set."
+    )
+    @PluginProperty(group = "main", internalStorageURI = true)
+    private Property<String> from;
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        try (AlgoliaClientCache.Lease lease = this.client(runContext)) {
+            SearchClient client = lease.client();
+            String rIndexName = runContext.render(indexName).as(String.class).orElseThrow();
+            String temporaryIndex = rIndexName + "_tmp_" + UUID.randomUUID().toString().substring(0, 8);
+            // the temporary index must be fully indexed before it is moved
+            BatchWriter.Options options = this.writerOptions(runContext).waitForIndexing(true).build();
+
+            try {
+                boolean exists = client.indexExists(rIndexName);
+                if (exists) {
+                    UpdatedAtResponse copy = client.operationIndex(
+                        rIndexName,
+                        new OperationIndexParams()
+                            .setOperation(OperationType.COPY)
+                            .setDestination(temporaryIndex)
+                            .setScope(List.of(ScopeType.SETTINGS, ScopeType.SYNONYMS, ScopeType.RULES))
+                    );
+                    waitForTask(client, temporaryIndex, copy.getTaskID(), options.waitTimeout());
+
+                    runContext.logger().debug("Copied settings, synonyms and rules of '{}' to '{}'", rIndexName, temporaryIndex);
+                }
+
+                BatchWriter.Result result = this.records(runContext, objects, from, rows -> {
+                    try (BatchWriter writer = new BatchWriter(runContext, client, temporaryIndex, options)) {
+                        for (Object row : rows) {
+                            if (!(row instanceof Map<?, ?> map)) {
+                                throw new IllegalArgumentException("Invalid record, expected an object but got '" + row + "'");
+                            }
+
+                            writer.add(new BatchRequest().setAction(Action.ADD_OBJECT).setBody(map));
+                        }
+
+                        return writer.finish();
+                    }
+                });
+
+                // with no record written, and no copy of an existing target, the temporary index does not exist and could not be moved
+                if (!exists && result.count() == 0) {
+                    UpdatedAtResponse create = client.setSettings(temporaryIndex, new IndexSettings());
+                    waitForTask(client, temporaryIndex, create.getTaskID(), options.waitTimeout());
+                }
+
+                long start = System.nanoTime();
+                UpdatedAtResponse move = client.operationIndex(
+                    temporaryIndex,
+                    new OperationIndexParams()
+                        .setOperation(OperationType.MOVE)
+                        .setDestination(rIndexName)
+                );
+                waitForTask(client, rIndexName, move.getTaskID(), options.waitTimeout());
+                runContext.metric(Timer.of("move.duration", Duration.ofNanos(System.nanoTime() - start), "index", rIndexName, "operation", "replace_all_objects"));
+
+                runContext.logger().info(
+                    "Replaced all records of index '{}' with {} record(s) sent in {} batch(es)",
+                    rIndexName, result.count(), result.taskIds().size()
+                );
+
+                return Output.builder()
+                    .count(result.count())
+                    .batches(result.taskIds().size())
+                    .taskIds(result.taskIds())
+                    .moveTaskId(move.getTaskID())
+                    .oversizeCount(result.oversizeCount())
+                    .oversizeUri(result.oversizeUri())
+                    .build();
+            } catch (Exception e) {
+                try {
+                    client.deleteIndex(temporaryIndex);
+                } catch (Exception deleteException) {
+                    runContext.logger().warn("Unable to delete temporary index '{}'", temporaryIndex, deleteException);
+                }
+
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Wait for a single task, bounded by {@code waitTimeout} like the batches.
+     */
+    private static void waitForTask(SearchClient client, String indexName, Long taskId, Duration timeout) throws Exception {
+        try (TaskWaiter waiter = new TaskWaiter(client, indexName, 1, timeout)) {
+            waiter.watch(taskId);
+            waiter.await();
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "Number of records sent",
+            description = "Total number of records written to the temporary index and now served by the target index."
+        )
+        private final Long count;
+
+        @Schema(
+            title = "Number of batch requests",
+            description = "Number of batch requests sent to Algolia, one per chunk."
+        )
+        private final Integer batches;
+
+        @Schema(
+            title = "Batch task IDs",
+            description = "Algolia taskID returned for each batch request on the temporary index."
+        )
+        private final List<Long> taskIds;
+
+        @Schema(
+            title = "Move task ID",
+            description = "Algolia taskID of the move of the temporary index over the target index."
+        )
+        private final Long moveTaskId;
+
+        @Schema(
+            title = "Number of oversize records",
+            description = "Records over `maxRecordBytes` that were not sent to Algolia."
+        )
+        private final Long oversizeCount;
+
+        @Schema(
+            title = "Oversize records file",
+            description = "Internal storage URI of the records over `maxRecordBytes`, only set when `onOversizeRecord` is `STORE`."
+        )
+        private final URI oversizeUri;
+    }
+}
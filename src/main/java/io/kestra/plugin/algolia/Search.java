@@ -1,18 +1,31 @@
 package io.kestra.plugin.algolia;
 
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import com.algolia.api.SearchClient;
+import com.algolia.model.search.BrowseParamsObject;
+import com.algolia.model.search.BrowseResponse;
 import com.algolia.model.search.SearchParams;
 import com.algolia.model.search.SearchResponse;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.models.tasks.common.FetchType;
 import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
 import io.kestra.core.serializers.JacksonMapper;
 
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -28,7 +41,7 @@ import io.kestra.core.models.annotations.PluginProperty;
 @EqualsAndHashCode
 @Schema(
     title = "Query records in an Algolia index",
-    description = "Runs a search against a single Algolia index with any supported search parameters and returns hits. Uses the Admin API Key. With no params, the empty query matches all records but returns only the first page (Algolia default hitsPerPage=20)."
+    description = "Runs a search against a single Algolia index with any supported search parameters and returns hits. Uses the Admin API Key. With the default `fetchType` (`FETCH`) and no params, the empty query matches all records but returns only the first page (Algolia default hitsPerPage=20); use `STORE` to export every matching record to internal storage."
 )
 @Plugin(
     examples = {
@@ -49,6 +62,48 @@ import io.kestra.core.models.annotations.PluginProperty;
                       query: "t-shirt"
                       hitsPerPage: 5
                 """
+        ),
+        @Example(
+            full = true,
+            title = "Export all matching products to internal storage",
+            code = """
+                id: export_products
+                namespace: company.team
+
+                tasks:
+                  - id: export_products
+                    type: io.kestra.plugin.algolia.Search
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    indexName: "products"
+                    fetchType: STORE
+                    params:
+                      filters: "brand:acme"
+                """
+        ),
+        @Example(
+            full = true,
+            title = "Cache a lookup run on every execution for one minute",
+            code = """
+                id: lookup_product
+                namespace: company.team
+
+                inputs:
+                  - id: sku
+                    type: STRING
+
+                tasks:
+                  - id: lookup
+                    type: io.kestra.plugin.algolia.Search
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    indexName: "products"
+                    fetchType: FETCH_ONE
+                    cacheTtl: PT1M
+                    sharedCache: true
+                    params:
+                      filters: "sku:{{ inputs.sku }}"
+                """
         )
     }
 )
@@ -68,26 +123,163 @@ public class Search extends AbstractAlgoliaTask<Search.Output> implements Runnab
     @PluginProperty(group = "advanced")
     private Property<Map<String, Object>> params;
 
+    @Schema(
+        title = "How to fetch hits",
+        description = """
+            - `FETCH`: return the hits of the requested page in `hits`.
+            - `FETCH_ONE`: return the first hit in `row`.
+            - `STORE`: browse every matching record, page after page, and write them to an ION file in internal storage; only the `uri` and `size` are returned.
+            - `NONE`: only return `nbHits`.
+            """
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<FetchType> fetchType = Property.ofValue(FetchType.FETCH);
+
+    @Schema(
+        title = "Result cache TTL",
+        description = "When set, results are cached for this duration and identical searches (same application, API key, index and params) are answered from the cache instead of Algolia. Not used when `fetchType` is `STORE`."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Duration> cacheTtl;
+
+    @Schema(
+        title = "Maximum number of cached results",
+        description = "Size of the in-worker cache shared by every `Search` task of the worker; the least recently used results are evicted first."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Integer> cacheMaxEntries = Property.ofValue(1000);
+
+    @Schema(
+        title = "Share cached results through the KV store",
+        description = "Also keep cached results in the namespace KV store, so that every worker can reuse them until `cacheTtl` expires."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> sharedCache = Property.ofValue(false);
+
     @Override
     public Output run(RunContext runContext) throws Exception {
-        try (SearchClient client = this.client(runContext)) {
+        try (AlgoliaClientCache.Lease lease = this.client(runContext)) {
+            SearchClient client = lease.client();
             String rIndex = runContext.render(indexName).as(String.class).orElseThrow();
 
             Map<String, Object> params = runContext.render(this.params).asMap(String.class, Object.class);
+            FetchType rFetchType = runContext.render(fetchType).as(FetchType.class).orElse(FetchType.FETCH);
+
+            if (rFetchType == FetchType.STORE) {
+                return this.store(runContext, client, rIndex, params);
+            }
+
+            Optional<Duration> rCacheTtl = runContext.render(cacheTtl).as(Duration.class);
+            boolean rSharedCache = runContext.render(sharedCache).as(Boolean.class).orElse(false);
+            String cacheKey = null;
+            SearchCache.Result result = null;
+
+            if (rCacheTtl.isPresent()) {
+                cacheKey = SearchCache.key(
+                    runContext.render(applicationId).as(String.class).orElseThrow(),
+                    runContext.render(apiKey).as(String.class).orElseThrow(),
+                    rIndex,
+                    params
+                );
+
+                result = SearchCache.getLocal(cacheKey).orElse(null);
+                if (result == null && rSharedCache) {
+                    result = SearchCache.getShared(runContext, cacheKey).orElse(null);
+                }
+
+                runContext.metric(Counter.of(result != null ? "cache.hits" : "cache.misses", 1, "index", rIndex, "operation", "search"));
+            }
+
+            boolean cacheHit = result != null;
+            if (cacheHit) {
+                runContext.logger().info("Answered search on Algolia index '{}' with params {} from cache, {} hits", rIndex, params, result.nbHits());
+            } else {
+                SearchParams searchParams = JacksonMapper.ofJson().convertValue(params, SearchParams.class);
+
+                long start = System.nanoTime();
+                SearchResponse<ObjectNode> response = client.searchSingleIndex(rIndex, searchParams, ObjectNode.class);
 
-            SearchParams searchParams = JacksonMapper.ofJson().convertValue(params, SearchParams.class);
+                runContext.metric(Timer.of("request.duration", Duration.ofNanos(System.nanoTime() - start), "index", rIndex, "operation", "search"));
+                runContext.metric(Counter.of("hits", response.getHits().size(), "index", rIndex, "operation", "search"));
 
-            SearchResponse<ObjectNode> response = client.searchSingleIndex(rIndex, searchParams, ObjectNode.class);
+                runContext.logger().info("Searched Algolia index '{}' with params {}, found {} hits", rIndex, params, response.getNbHits());
 
-            runContext.logger().info("Searched Algolia index '{}' with params {}, found {} hits", rIndex, params, response.getNbHits());
+                result = new SearchCache.Result(response.getNbHits(), response.getHits());
 
-            return Output.builder()
-                .nbHits(response.getNbHits())
-                .hits(response.getHits())
-                .build();
+                if (rCacheTtl.isPresent()) {
+                    int rCacheMaxEntries = runContext.render(cacheMaxEntries).as(Integer.class).orElse(1000);
+                    SearchCache.putLocal(cacheKey, result, rCacheTtl.get(), rCacheMaxEntries);
+                    if (rSharedCache) {
+                        SearchCache.putShared(runContext, cacheKey, result, rCacheTtl.get());
+                    }
+                }
+            }
+
+            Output.OutputBuilder output = Output.builder()
+                .nbHits(result.nbHits())
+                .cacheHit(rCacheTtl.isPresent() ? cacheHit : null);
+
+            switch (rFetchType) {
+                case FETCH -> output.hits(result.hits()).size((long) result.hits().size());
+                case FETCH_ONE -> {
+                    if (!result.hits().isEmpty()) {
+                        output.row(result.hits().getFirst()).size(1L);
+                    } else {
+                        output.size(0L);
+                    }
+                }
+                default -> {
+                }
+            }
+
+            return output.build();
         }
     }
 
+    private Output store(RunContext runContext, SearchClient client, String indexName, Map<String, Object> params) throws Exception {
+        BrowseParamsObject browseParams = JacksonMapper.ofJson().convertValue(params, BrowseParamsObject.class);
+        if (browseParams.getHitsPerPage() == null) {
+            browseParams.setHitsPerPage(1000);
+        }
+
+        File tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+        Integer nbHits = null;
+        long size = 0;
+
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(tempFile), FileSerde.BUFFER_SIZE)) {
+            String cursor = null;
+
+            do {
+                long start = System.nanoTime();
+                BrowseResponse<ObjectNode> page = client.browse(indexName, browseParams.setCursor(cursor), ObjectNode.class);
+                runContext.metric(Timer.of("request.duration", Duration.ofNanos(System.nanoTime() - start), "index", indexName, "operation", "browse"));
+
+                if (nbHits == null) {
+                    nbHits = page.getNbHits();
+                }
+
+                for (ObjectNode hit : page.getHits()) {
+                    FileSerde.write(output, hit);
+                    size++;
+                }
+
+                cursor = page.getCursor();
+            } while (cursor != null);
+        }
+
+        runContext.metric(Counter.of("hits", size, "index", indexName, "operation", "browse"));
+        runContext.logger().info("Browsed Algolia index '{}' with params {}, stored {} hits", indexName, params, size);
+
+        return Output.builder()
+            .nbHits(nbHits)
+            .size(size)
+            .uri(runContext.storage().putFile(tempFile))
+            .build();
+    }
+
     @Builder
     @Getter
     public static class Output implements io.kestra.core.models.tasks.Output {
@@ -96,8 +288,31 @@ public class Search extends AbstractAlgoliaTask<Search.Output> implements Runnab
 
         @Schema(
             title = "Search results (hits)",
-            description = "List of hits returned by Algolia for the query."
+            description = "List of hits returned by Algolia for the query, only set when `fetchType` is `FETCH`."
         )
         private final List<ObjectNode> hits;
+
+        @Schema(
+            title = "First hit",
+            description = "Only set when `fetchType` is `FETCH_ONE`."
+        )
+        private final ObjectNode row;
+
+        @Schema(
+            title = "Number of hits fetched or stored"
+        )
+        private final Long size;
+
+        @Schema(
+            title = "Stored hits file",
+            description = "Internal storage URI of the ION file holding every matching hit, only set when `fetchType` is `STORE`."
+        )
+        private final URI uri;
+
+        @Schema(
+            title = "Whether the result came from the cache",
+            description = "Only set when `cacheTtl` is set."
+        )
+        private final Boolean cacheHit;
     }
 }
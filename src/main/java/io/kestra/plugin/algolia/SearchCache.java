@@ -0,0 +1,122 @@
+package io.kestra.plugin.algolia;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+
+/**
+ * Cache of {@link Search} results, so that identical queries repeated within a short time do not each cost a search request.
+ * <p>
+ * The first tier is a worker-wide LRU map bounded in number of entries. The optional second tier is the namespace KV
+ * store, shared by every worker, where entries expire through the KV TTL.
+ * Keys are a SHA-256 hash of the application ID, the API key, the index name and the search params serialized with
+ * sorted keys, so equivalent params written in a different order share the same entry.
+ */
+final class SearchCache {
+    private static final ObjectMapper CANONICAL_MAPPER = JacksonMapper.ofJson().copy()
+        .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private static final String KV_PREFIX = "algolia_search_";
+
+    private static final Map<String, Entry> LOCAL = new LinkedHashMap<>(16, 0.75f, true);
+
+    private SearchCache() {
+    }
+
+    static String key(String applicationId, String apiKey, String indexName, Map<String, Object> params) throws JsonProcessingException {
+        String raw = applicationId + "\n" + apiKey + "\n" + indexName + "\n" + CANONICAL_MAPPER.writeValueAsString(params);
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Optional<Result> getLocal(String key) {
+        synchronized (LOCAL) {
+            Entry entry = LOCAL.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+
+            if (System.nanoTime() - entry.expiresAt > 0) {
+                LOCAL.remove(key);
+                return Optional.empty();
+            }
+
+            return Optional.of(entry.result);
+        }
+    }
+
+    /**
+     * Store a result in the worker cache, evicting the least recently used entries over {@code maxEntries}; the map
+     * is worker-wide, so the bound of the last task to write applies.
+     */
+    static void putLocal(String key, Result result, Duration ttl, int maxEntries) {
+        synchronized (LOCAL) {
+            LOCAL.put(key, new Entry(result, System.nanoTime() + ttl.toNanos()));
+
+            Iterator<Map.Entry<String, Entry>> iterator = LOCAL.entrySet().iterator();
+            while (LOCAL.size() > maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    static Optional<Result> getShared(RunContext runContext, String key) throws Exception {
+        Optional<KVValue> value = kv(runContext).getValue(KV_PREFIX + key);
+        if (value.isEmpty() || value.get().value() == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(JacksonMapper.ofJson().readValue(value.get().value().toString(), Result.class));
+    }
+
+    static void putShared(RunContext runContext, String key, Result result, Duration ttl) throws Exception {
+        kv(runContext).put(
+            KV_PREFIX + key,
+            new KVValueAndMetadata(
+                new KVMetadata("Cached Algolia search result", ttl),
+                JacksonMapper.ofJson().writeValueAsString(result)
+            )
+        );
+    }
+
+    static void clear() {
+        synchronized (LOCAL) {
+            LOCAL.clear();
+        }
+    }
+
+    private static KVStore kv(RunContext runContext) {
+        return runContext.namespaceKv(runContext.flowInfo().namespace());
+    }
+
+    record Result(Integer nbHits, List<ObjectNode> hits) {
+    }
+
+    private record Entry(Result result, long expiresAt) {
+    }
+}
@@ -0,0 +1,309 @@
+package io.kestra.plugin.algolia;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.algolia.api.SearchClient;
+import com.algolia.model.search.Action;
+import com.algolia.model.search.BatchRequest;
+import com.algolia.model.search.BrowseParamsObject;
+import com.algolia.model.search.BrowseResponse;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import io.kestra.core.models.annotations.PluginProperty;
+
+@SuperBuilder
+@Getter
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+@Schema(
+    title = "Mirror a source dataset into an Algolia index",
+    description = "Upserts every source record and deletes the records of the index whose objectID is not part of the source anymore. " +
+        "While the source is streamed, the objectIDs of the index are browsed in parallel (and only them); both ID sets are sorted on disk and merged to find the orphans, " +
+        "so memory use stays flat even with tens of millions of records. " +
+        "As an empty or truncated source would delete most of the index, the orphans are counted before any of them is deleted, and the task fails without deleting anything over `maxDeletes` or `maxDeleteRatio`. " +
+        "Every source record needs an `objectID`. Uses an API Key with the `addObject`, `deleteObject` and `browse` ACLs."
+)
+@Plugin(
+    examples = {
+        @Example(
+            full = true,
+            title = "Mirror a product table into Algolia every night",
+            code = """
+                id: sync_products
+                namespace: company.team
+
+                tasks:
+                  - id: query
+                    type: io.kestra.plugin.jdbc.postgresql.Query
+                    url: jdbc:postgresql://db:5432/shop
+                    username: "{{ secret('DB_USER') }}"
+                    password: "{{ secret('DB_PASSWORD') }}"
+                    sql: SELECT id AS "objectID", name, price FROM products
+                    fetchType: STORE
+
+                  - id: sync
+                    type: io.kestra.plugin.algolia.Sync
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    indexName: "products"
+                    from: "{{ outputs.query.uri }}"
+
+                triggers:
+                  - id: nightly
+                    type: io.kestra.plugin.core.trigger.Schedule
+                    cron: "0 2 * * *"
+                """
+        )
+    }
+)
+public class Sync extends AbstractAlgoliaWriteTask<Sync.Output> implements RunnableTask<Sync.Output> {
+    @Schema(
+        title = "Target index name",
+        description = "Algolia index mirroring the source."
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> indexName;
+
+    @Schema(
+        title = "Record objects",
+        description = "List of JSON maps making up the full content of the source, each with an `objectID`. Exactly one of `objects` or `from` must be set."
+    )
+    @PluginProperty(group = "main")
+    private Property<List<Map<String, Object>>> objects;
+
+    @Schema(
+        title = "Source file URI",
+        description = "Internal storage URI of an ION or JSON Lines file with one record per row, each with an `objectID`, making up the full content of the source. Exactly one of `objects` or `from` must be set."
+    )
+    @PluginProperty(group = "main", internalStorageURI = true)
+    private Property<String> from;
+
+    @Schema(
+        title = "Maximum number of records to delete",
+        description = "If more records of the index are missing from the source, the task fails before deleting any of them; the source records are still upserted."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Long> maxDeletes;
+
+    @Schema(
+        title = "Maximum share of the index to delete",
+        description = "Between 0 and 1; if a larger share of the records of the index is missing from the source, the task fails before deleting any of them, " +
+            "so an empty or truncated source does not wipe the index. Set it to 1 to allow deleting every record."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Double> maxDeleteRatio = Property.ofValue(0.9);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        Long rMaxDeletes = runContext.render(maxDeletes).as(Long.class).orElse(null);
+        double rMaxDeleteRatio = runContext.render(maxDeleteRatio).as(Double.class).orElse(0.9);
+
+        if ((rMaxDeletes != null && rMaxDeletes < 0) || rMaxDeleteRatio < 0 || rMaxDeleteRatio > 1) {
+            throw new IllegalArgumentException("'maxDeletes' must not be negative and 'maxDeleteRatio' must be between 0 and 1");
+        }
+
+        try (AlgoliaClientCache.Lease lease = this.client(runContext)) {
+            SearchClient client = lease.client();
+            String rIndexName = runContext.render(indexName).as(String.class).orElseThrow();
+
+            return this.records(runContext, objects, from, rows -> this.sync(runContext, client, rIndexName, rows, rMaxDeletes, rMaxDeleteRatio));
+        }
+    }
+
+    private Output sync(RunContext runContext, SearchClient client, String indexName, Iterable<?> rows, Long maxDeletes, double maxDeleteRatio) throws Exception {
+        BatchWriter.Result result;
+        long upserted = 0;
+        long deleted;
+
+        try (
+            ObjectIdSorter sourceIds = new ObjectIdSorter(runContext);
+            ObjectIdSorter indexIds = new ObjectIdSorter(runContext);
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            BatchWriter writer = this.writer(runContext, client, indexName)
+        ) {
+            // records upserted below are part of the source, so browsing while they are written cannot report them as orphans
+            Future<Long> browse = executor.submit(() -> this.browseIds(client, indexName, indexIds));
+
+            long indexed;
+            try {
+                for (Object row : rows) {
+                    if (!(row instanceof Map<?, ?> map)) {
+                        throw new IllegalArgumentException("Invalid record, expected an object but got '" + row + "'");
+                    }
+
+                    if (map.get("objectID") == null) {
+                        throw new IllegalArgumentException("Sync requires an 'objectID' on every record");
+                    }
+
+                    sourceIds.add(map.get("objectID").toString());
+                    writer.add(new BatchRequest().setAction(Action.ADD_OBJECT).setBody(map));
+                    upserted++;
+                }
+
+                indexed = browse.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception cause) {
+                    throw cause;
+                }
+
+                throw e;
+            } finally {
+                // stops browsing when the source cannot be read or written
+                browse.cancel(true);
+            }
+
+            // counted before deleting anything, so a source that would wipe the index fails with the index intact
+            long orphans = orphans(sourceIds, indexIds, orphan -> { });
+            if ((maxDeletes != null && orphans > maxDeletes) || orphans > maxDeleteRatio * indexed) {
+                writer.finish();
+
+                throw new IllegalStateException(
+                    "Sync would delete " + orphans + " of the " + indexed + " record(s) of index '" + indexName + "', over 'maxDeletes' (" + maxDeletes + ") " +
+                        "or 'maxDeleteRatio' (" + maxDeleteRatio + "); no record was deleted, check the source or raise the limits"
+                );
+            }
+
+            deleted = orphans(sourceIds, indexIds, orphan -> writer.add(new BatchRequest().setAction(Action.DELETE_OBJECT).setBody(Map.of("objectID", orphan))));
+
+            result = writer.finish();
+
+            runContext.logger().info(
+                "Synced Algolia index '{}' holding {} record(s): {} upserted, {} orphan(s) deleted, in {} batch(es)",
+                indexName, indexed, upserted, deleted, result.taskIds().size()
+            );
+        }
+
+        return Output.builder()
+            .count(result.count())
+            .upserted(upserted)
+            .deleted(deleted)
+            .batches(result.taskIds().size())
+            .taskIds(result.taskIds())
+            .oversizeCount(result.oversizeCount())
+            .oversizeUri(result.oversizeUri())
+            .build();
+    }
+
+    /**
+     * Merge the sorted IDs of the source and of the index, giving {@code orphan} each ID only in the index.
+     *
+     * @return the number of orphans
+     */
+    private static long orphans(ObjectIdSorter sourceIds, ObjectIdSorter indexIds, OrphanConsumer orphan) throws Exception {
+        // each pass closes its streams, so the counting and deleting passes never hold files open together
+        try (ObjectIdSorter.Cursor source = sourceIds.sorted(); ObjectIdSorter.Cursor index = indexIds.sorted()) {
+            String sourceId = source.next();
+            String indexId = index.next();
+            long count = 0;
+
+            while (indexId != null) {
+                int compare = sourceId == null ? 1 : sourceId.compareTo(indexId);
+
+                if (compare < 0) {
+                    sourceId = source.next();
+                } else if (compare == 0) {
+                    sourceId = source.next();
+                    indexId = index.next();
+                } else {
+                    orphan.accept(indexId);
+                    count++;
+                    indexId = index.next();
+                }
+            }
+
+            return count;
+        }
+    }
+
+    @FunctionalInterface
+    private interface OrphanConsumer {
+        void accept(String objectId) throws Exception;
+    }
+
+    private long browseIds(SearchClient client, String indexName, ObjectIdSorter indexIds) throws Exception {
+        BrowseParamsObject browseParams = new BrowseParamsObject()
+            .setAttributesToRetrieve(List.of("objectID"))
+            .setHitsPerPage(1000);
+
+        long count = 0;
+        String cursor = null;
+
+        do {
+            BrowseResponse<ObjectNode> page = client.browse(indexName, browseParams.setCursor(cursor), ObjectNode.class);
+
+            for (ObjectNode hit : page.getHits()) {
+                indexIds.add(hit.get("objectID").asText());
+                count++;
+            }
+
+            cursor = page.getCursor();
+        } while (cursor != null);
+
+        return count;
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "Number of records sent",
+            description = "Total number of upserts and deletes sent to Algolia across all batch requests."
+        )
+        private final Long count;
+
+        @Schema(
+            title = "Number of upserted records",
+            description = "Source records written to the index."
+        )
+        private final Long upserted;
+
+        @Schema(
+            title = "Number of deleted records",
+            description = "Records of the index deleted because their objectID is not part of the source."
+        )
+        private final Long deleted;
+
+        @Schema(
+            title = "Number of batch requests",
+            description = "Number of batch requests sent to Algolia, one per chunk."
+        )
+        private final Integer batches;
+
+        @Schema(
+            title = "Batch task IDs",
+            description = "Algolia taskID returned for each batch request, in the order the chunks were sent."
+        )
+        private final List<Long> taskIds;
+
+        @Schema(
+            title = "Number of oversize records",
+            description = "Records over `maxRecordBytes` that were not sent to Algolia; they are not deleted from the index either."
+        )
+        private final Long oversizeCount;
+
+        @Schema(
+            title = "Oversize records file",
+            description = "Internal storage URI of the records over `maxRecordBytes`, only set when `onOversizeRecord` is `STORE`."
+        )
+        private final URI oversizeUri;
+    }
+}
@@ -0,0 +1,117 @@
+package io.kestra.plugin.algolia;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+
+import com.algolia.api.SearchClient;
+import com.algolia.model.search.TaskStatus;
+
+/**
+ * Polls the status of Algolia tasks until they are published, while the caller keeps sending batches.
+ * <p>
+ * Each watched task is polled on its own virtual thread, at most {@code concurrency} of them hitting the API at once.
+ * The delay between two polls of the same task starts at {@link #INITIAL_DELAY} and grows by {@link #BACKOFF_FACTOR}
+ * up to {@link #MAX_DELAY}, so short tasks are seen quickly and long ones do not flood the API.
+ * The {@code timeout} starts when {@link #await()} is called, i.e. once every batch has been sent.
+ */
+class TaskWaiter implements AutoCloseable {
+    static final Duration INITIAL_DELAY = Duration.ofMillis(100);
+    static final Duration MAX_DELAY = Duration.ofSeconds(5);
+    static final double BACKOFF_FACTOR = 1.5;
+    // tasks polled at once by the callers that have no concurrency of their own
+    static final int DEFAULT_CONCURRENCY = 4;
+
+    private final SearchClient client;
+    private final String indexName;
+    private final Duration timeout;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore polling;
+    private final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+    // set once every batch has been sent, null until then
+    private volatile Long deadline;
+
+    TaskWaiter(SearchClient client, String indexName, int concurrency, Duration timeout) {
+        this.client = client;
+        this.indexName = indexName;
+        this.timeout = timeout;
+        this.polling = new Semaphore(concurrency);
+    }
+
+    synchronized void watch(Long taskId) {
+        tasks.add(CompletableFuture.runAsync(() -> this.poll(taskId), executor));
+    }
+
+    /**
+     * Wait until every watched task is published.
+     *
+     * @return how long the caller was blocked waiting
+     */
+    Duration await() throws Exception {
+        long start = System.nanoTime();
+        deadline = start + timeout.toNanos();
+
+        List<CompletableFuture<Void>> watched;
+        synchronized (this) {
+            watched = new ArrayList<>(tasks);
+        }
+
+        try {
+            CompletableFuture.allOf(watched.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+
+            throw e;
+        }
+
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    private void poll(Long taskId) {
+        long delay = INITIAL_DELAY.toMillis();
+
+        try {
+            while (true) {
+                polling.acquire();
+                TaskStatus status;
+                try {
+                    status = client.getTask(indexName, taskId).getStatus();
+                } finally {
+                    polling.release();
+                }
+
+                if (status == TaskStatus.PUBLISHED) {
+                    return;
+                }
+
+                Long currentDeadline = deadline;
+                if (currentDeadline != null && System.nanoTime() + Duration.ofMillis(delay).toNanos() - currentDeadline > 0) {
+                    throw new CompletionException(new TimeoutException(
+                        "Task " + taskId + " on index '" + indexName + "' was not published within " + timeout
+                    ));
+                }
+
+                Thread.sleep(delay);
+                delay = Math.min((long) (delay * BACKOFF_FACTOR), MAX_DELAY.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,79 @@
+package io.kestra.plugin.algolia;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side throughput limiter shared by every task of this worker that targets the same Algolia application with
+ * the same rate. Tasks configured with different rates get different buckets, so none of them changes the limit
+ * another one relies on.
+ * <p>
+ * The bucket holds at most one second worth of permits. A caller asking for more permits than available goes into debt
+ * and sleeps until the debt is paid back, so a single chunk larger than the rate is still sent, just later.
+ * <p>
+ * A bucket unused for more than a second is full, so dropping it loses nothing: each lookup drops the buckets idle for
+ * {@link #IDLE_TIMEOUT}, and the map does not grow with every application and rate ever used on the worker.
+ */
+final class TokenBucket {
+    static final Duration IDLE_TIMEOUT = AlgoliaClientCache.IDLE_TIMEOUT;
+
+    private static final Map<String, TokenBucket> BUCKETS = new ConcurrentHashMap<>();
+
+    private final double ratePerSecond;
+    private double tokens;
+    private long lastRefill;
+
+    private TokenBucket(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+        this.tokens = ratePerSecond;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Get the bucket of this application for the given kind of permit and rate.
+     */
+    static TokenBucket of(String applicationId, String kind, double ratePerSecond) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be greater than 0, got " + ratePerSecond);
+        }
+
+        evictIdle(IDLE_TIMEOUT);
+
+        return BUCKETS.computeIfAbsent(applicationId + ":" + kind + ":" + ratePerSecond, key -> new TokenBucket(ratePerSecond));
+    }
+
+    static void evictIdle(Duration idleTimeout) {
+        long now = System.nanoTime();
+        BUCKETS.values().removeIf(bucket -> bucket.idleNanos(now) >= idleTimeout.toNanos());
+    }
+
+    static int size() {
+        return BUCKETS.size();
+    }
+
+    private synchronized long idleNanos(long now) {
+        return now - lastRefill;
+    }
+
+    void acquire(long permits) throws InterruptedException {
+        long waitNanos = this.reserve(permits);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private synchronized long reserve(long permits) {
+        long now = System.nanoTime();
+        tokens = Math.min(ratePerSecond, tokens + (now - lastRefill) * ratePerSecond / TimeUnit.SECONDS.toNanos(1));
+        lastRefill = now;
+
+        tokens -= permits;
+        if (tokens >= 0) {
+            return 0;
+        }
+
+        return (long) (-tokens / ratePerSecond * TimeUnit.SECONDS.toNanos(1));
+    }
+}
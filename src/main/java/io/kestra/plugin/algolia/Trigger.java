@@ -0,0 +1,385 @@
+package io.kestra.plugin.algolia;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.algolia.api.SearchClient;
+import com.algolia.model.search.BrowseParamsObject;
+import com.algolia.model.search.BrowseResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.common.FetchType;
+import io.kestra.core.models.triggers.AbstractTrigger;
+import io.kestra.core.models.triggers.PollingTriggerInterface;
+import io.kestra.core.models.triggers.TriggerContext;
+import io.kestra.core.models.triggers.TriggerOutput;
+import io.kestra.core.models.triggers.TriggerService;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import io.kestra.core.models.annotations.PluginProperty;
+
+@SuperBuilder
+@Getter
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+@Schema(
+    title = "Trigger a flow on new or updated Algolia records",
+    description = "Polls an index for records whose numeric `attribute` (for example an `updatedAt` timestamp) is at least the highest value seen by the previous poll, " +
+        "browsing every page of matches with a numeric filter, so each poll costs in proportion to what changed rather than to the index size. " +
+        "The high-water mark is kept in the namespace KV store with the objectIDs already returned at the mark (or within `overlap` below it), so records sharing the mark are neither skipped nor returned twice. " +
+        "One execution is created per poll that found records, holding all of them; use a `ForEach` to process them one by one."
+)
+@Plugin(
+    examples = {
+        @Example(
+            full = true,
+            title = "Process products updated since the last poll",
+            code = """
+                id: algolia_updates
+                namespace: company.team
+
+                tasks:
+                  - id: each
+                    type: io.kestra.plugin.core.flow.ForEach
+                    values: "{{ trigger.hits }}"
+                    tasks:
+                      - id: log
+                        type: io.kestra.plugin.core.log.Log
+                        message: "{{ taskrun.value }}"
+
+                triggers:
+                  - id: watch
+                    type: io.kestra.plugin.algolia.Trigger
+                    applicationId: "{{ secret('ALGOLIA_APP_ID') }}"
+                    apiKey: "{{ secret('ALGOLIA_API_KEY') }}"
+                    indexName: "products"
+                    attribute: "updatedAt"
+                    initialHighWaterMark: 1767225600
+                    interval: PT5M
+                    params:
+                      filters: "status:published"
+                """
+        )
+    }
+)
+public class Trigger extends AbstractTrigger implements PollingTriggerInterface, TriggerOutput<Trigger.Output> {
+    @Schema(
+        title = "Algolia Application ID",
+        description = "Required; project Application ID from the Algolia dashboard."
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> applicationId;
+
+    @Schema(
+        title = "API Key",
+        description = "API Key with the `browse` ACL on the index; render from secrets."
+    )
+    @NotNull
+    @PluginProperty(group = "main", secret = true)
+    private Property<String> apiKey;
+
+    @Schema(
+        title = "Custom API hosts",
+        description = "Base URLs used instead of the default Algolia hosts, e.g. to go through a proxy."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<List<String>> hosts;
+
+    @Schema(
+        title = "HTTP client options",
+        description = "Timeouts and request compression of the HTTP client; Algolia client defaults apply to the options left unset."
+    )
+    @PluginProperty(group = "advanced")
+    private AbstractAlgoliaTask.ClientOptions clientOptions;
+
+    @Schema(
+        title = "Target index name",
+        description = "Algolia index to poll within the configured application."
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> indexName;
+
+    @Schema(
+        title = "High-water mark attribute",
+        description = "Numeric attribute, declared in the index `numericAttributesForFaceting` or usable in `numericFilters`, that grows whenever a record is added or updated."
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> attribute;
+
+    @Schema(
+        title = "Additional browse parameters",
+        description = "Any Algolia browse params (filters, attributesToRetrieve, etc.); `numericFilters` are combined with the high-water mark filter."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Map<String, Object>> params;
+
+    @Schema(
+        title = "Initial high-water mark",
+        description = "Only records at or above this value are returned by the first poll. Required with `fetchType: FETCH`, " +
+            "as a first poll without a mark returns every matching record of the index; with `STORE`, a first poll without it writes them all to a file."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<BigDecimal> initialHighWaterMark;
+
+    @Schema(
+        title = "Overlap below the high-water mark",
+        description = "Every poll browses again the records with `attribute` down to this much below the high-water mark, " +
+            "to catch records indexed after a poll with a lower value, such as timestamps set by writers whose clocks or indexing lag behind. " +
+            "Records already returned are recognized by their objectID and `attribute` value and not returned again; " +
+            "their objectIDs are kept with the mark, so a wide overlap on a busy index makes the state larger."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<BigDecimal> overlap = Property.ofValue(BigDecimal.ZERO);
+
+    @Schema(
+        title = "KV key of the high-water mark",
+        description = "Defaults to `algolia_trigger_<flowId>_<triggerId>` in the flow namespace."
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> stateKey;
+
+    @Schema(
+        title = "How to pass the new records",
+        description = """
+            - `FETCH`: the records are in the `hits` output.
+            - `STORE`: the records are written to an ION file in internal storage and only the `uri` is passed, for polls that may return many records.
+            """
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<FetchType> fetchType = Property.ofValue(FetchType.FETCH);
+
+    @Schema(title = "Interval between polls")
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Duration interval = Duration.ofMinutes(1);
+
+    @Override
+    public Optional<Execution> evaluate(ConditionContext conditionContext, TriggerContext context) throws Exception {
+        RunContext runContext = conditionContext.getRunContext();
+
+        String rIndex = runContext.render(indexName).as(String.class).orElseThrow();
+        String rAttribute = runContext.render(attribute).as(String.class).orElseThrow();
+        FetchType rFetchType = runContext.render(fetchType).as(FetchType.class).orElse(FetchType.FETCH);
+        if (rFetchType != FetchType.FETCH && rFetchType != FetchType.STORE) {
+            throw new IllegalArgumentException("Invalid fetchType '" + rFetchType + "', must be FETCH or STORE");
+        }
+
+        String rStateKey = runContext.render(stateKey).as(String.class)
+            .orElse("algolia_trigger_" + runContext.flowInfo().id() + "_" + this.getId());
+        KVStore kv = runContext.namespaceKv(runContext.flowInfo().namespace());
+
+        BigDecimal rOverlap = runContext.render(overlap).as(BigDecimal.class).orElse(BigDecimal.ZERO);
+        if (rOverlap.signum() < 0) {
+            throw new IllegalArgumentException("'overlap' must not be negative");
+        }
+
+        State state = State.of(kv.getValue(rStateKey).map(KVValue::value).orElse(null));
+        BigDecimal previous = state != null
+            ? state.highWaterMark()
+            : runContext.render(initialHighWaterMark).as(BigDecimal.class).orElse(null);
+
+        if (previous == null && rFetchType == FetchType.FETCH) {
+            throw new IllegalArgumentException(
+                "'initialHighWaterMark' is required with fetchType FETCH, so the first poll does not load the whole index in the execution; " +
+                    "set it, or use fetchType STORE to start from every record"
+            );
+        }
+        Map<String, String> returned = state != null ? state.returned() : Map.of();
+
+        Map<String, Object> browse = new HashMap<>(runContext.render(params).asMap(String.class, Object.class));
+        if (previous != null) {
+            List<Object> numericFilters = new ArrayList<>();
+            Object existing = browse.get("numericFilters");
+            if (existing instanceof List<?> list) {
+                numericFilters.addAll(list);
+            } else if (existing != null) {
+                numericFilters.add(existing);
+            }
+            numericFilters.add(rAttribute + " >= " + previous.subtract(rOverlap).toPlainString());
+            browse.put("numericFilters", numericFilters);
+        }
+
+        BrowseParamsObject browseParams = JacksonMapper.ofJson().convertValue(browse, BrowseParamsObject.class);
+        if (browseParams.getHitsPerPage() == null) {
+            browseParams.setHitsPerPage(1000);
+        }
+
+        List<ObjectNode> hits = new ArrayList<>();
+        File tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+        BigDecimal highWaterMark = previous;
+        // records of this poll close enough to the mark to be browsed again by the next one
+        Map<String, String> window = new HashMap<>();
+        long size = 0;
+
+        String rApplicationId = runContext.render(applicationId).as(String.class).orElseThrow();
+        try (
+            AlgoliaClientCache.Lease lease = AlgoliaClientCache.lease(
+                rApplicationId,
+                runContext.render(apiKey).as(String.class).orElseThrow(),
+                AbstractAlgoliaTask.ClientOptions.settings(runContext, hosts, clientOptions)
+            );
+            OutputStream output = new BufferedOutputStream(new FileOutputStream(tempFile), FileSerde.BUFFER_SIZE)
+        ) {
+            SearchClient client = lease.client();
+            String cursor = null;
+
+            do {
+                BrowseResponse<ObjectNode> page = client.browse(rIndex, browseParams.setCursor(cursor), ObjectNode.class);
+
+                for (ObjectNode hit : page.getHits()) {
+                    JsonNode value = hit.get(rAttribute);
+                    if (value != null && value.isNumber()) {
+                        BigDecimal decimal = value.decimalValue();
+                        if (highWaterMark == null || decimal.compareTo(highWaterMark) > 0) {
+                            highWaterMark = decimal;
+                        }
+
+                        // browsed again from the previous poll: only returned if its value changed since
+                        String objectId = hit.path("objectID").asText();
+                        String version = decimal.stripTrailingZeros().toPlainString();
+                        window.put(objectId, version);
+                        if (version.equals(returned.get(objectId))) {
+                            continue;
+                        }
+                    }
+
+                    if (rFetchType == FetchType.STORE) {
+                        FileSerde.write(output, hit);
+                    } else {
+                        hits.add(hit);
+                    }
+                    size++;
+                }
+
+                cursor = page.getCursor();
+                prune(window, highWaterMark, rOverlap);
+            } while (cursor != null);
+        }
+
+        runContext.metric(Counter.of("records", size, "index", rIndex, "operation", "trigger"));
+
+        if (size == 0) {
+            runContext.logger().debug("No new record of index '{}' with {} from {}", rIndex, rAttribute, previous);
+            return Optional.empty();
+        }
+
+        // the mark is saved before the execution is created, so a record is never sent twice but may be lost if the
+        // execution cannot be created
+        if (highWaterMark != null) {
+            kv.put(rStateKey, new KVValueAndMetadata(
+                new KVMetadata("High-water mark of the Algolia trigger", (Duration) null),
+                new State(highWaterMark, window).toValue()
+            ));
+        }
+
+        runContext.logger().info(
+            "Found {} new record(s) of index '{}' with {} from {}, new high-water mark is {}",
+            size, rIndex, rAttribute, previous, highWaterMark
+        );
+
+        Output.OutputBuilder output = Output.builder()
+            .size(size)
+            .previousHighWaterMark(previous)
+            .highWaterMark(highWaterMark);
+
+        if (rFetchType == FetchType.STORE) {
+            output.uri(runContext.storage().putFile(tempFile));
+        } else {
+            output.hits(hits);
+        }
+
+        return Optional.of(TriggerService.generateExecution(this, conditionContext, context, output.build()));
+    }
+
+    private static void prune(Map<String, String> window, BigDecimal highWaterMark, BigDecimal overlap) {
+        if (highWaterMark != null) {
+            BigDecimal lowest = highWaterMark.subtract(overlap);
+            window.values().removeIf(version -> new BigDecimal(version).compareTo(lowest) < 0);
+        }
+    }
+
+    /**
+     * The high-water mark and the {@code attribute} value of each record returned at or within the overlap below it,
+     * by objectID. A state saved as a plain mark by an earlier version has no returned records.
+     */
+    record State(BigDecimal highWaterMark, Map<String, String> returned) {
+        static State of(Object value) {
+            if (value == null) {
+                return null;
+            }
+
+            if (value instanceof Map<?, ?> map) {
+                Map<String, String> returned = new HashMap<>();
+                if (map.get("returned") instanceof Map<?, ?> records) {
+                    records.forEach((objectId, version) -> returned.put(objectId.toString(), version.toString()));
+                }
+
+                return new State(new BigDecimal(map.get("highWaterMark").toString()), returned);
+            }
+
+            return new State(new BigDecimal(value.toString()), Map.of());
+        }
+
+        Map<String, Object> toValue() {
+            return Map.of("highWaterMark", highWaterMark.toPlainString(), "returned", returned);
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Number of new or updated records")
+        private final Long size;
+
+        @Schema(
+            title = "New or updated records",
+            description = "Only set when `fetchType` is `FETCH`."
+        )
+        private final List<ObjectNode> hits;
+
+        @Schema(
+            title = "New or updated records file",
+            description = "Internal storage URI of the ION file holding the records, only set when `fetchType` is `STORE`."
+        )
+        private final URI uri;
+
+        @Schema(title = "High-water mark before this poll")
+        private final BigDecimal previousHighWaterMark;
+
+        @Schema(title = "Highest value of `attribute` among the records of this poll")
+        private final BigDecimal highWaterMark;
+    }
+}
@@ -1,7 +1,8 @@
 @PluginSubGroup(
     description = "Tasks that integrate with Algolia Search to index, query, and delete records.\n" +
         "They use your Algolia Application ID and Admin API Key to operate on a target index, supporting batch writes, replacements, and removals.\n" +
-        "Use them to populate indexes (Index), clean up by objectID (Delete), or retrieve hits with any Algolia search parameters (Search).",
+        "Use them to populate indexes (Index), update attributes in place (PartialUpdate), rebuild them atomically (ReplaceAllObjects), mirror a source dataset (Sync), clean up by objectID (Delete), retrieve hits with any Algolia search parameters (Search, MultiSearch) or by objectID (GetObjects), dump a whole index (Export), or push settings, synonyms and rules (Configure).\n" +
+        "Start flows when records are added or updated with the polling Trigger.",
     categories = {
         PluginSubGroup.PluginCategory.DATA,
         PluginSubGroup.PluginCategory.INFRASTRUCTURE
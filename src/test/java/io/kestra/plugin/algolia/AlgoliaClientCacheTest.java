@@ -0,0 +1,74 @@
+package io.kestra.plugin.algolia;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.algolia.api.SearchClient;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class AlgoliaClientCacheTest {
+    private static final AlgoliaClientCache.Settings SETTINGS =
+        new AlgoliaClientCache.Settings(List.of("http://localhost:1"), null, null, null, false);
+
+    @AfterEach
+    void closeAll() {
+        AlgoliaClientCache.closeAll();
+    }
+
+    @Test
+    void shareClientUntilIdle() {
+        SearchClient client;
+        try (
+            AlgoliaClientCache.Lease first = AlgoliaClientCache.lease("APP_ID", "API_KEY", SETTINGS);
+            AlgoliaClientCache.Lease second = AlgoliaClientCache.lease("APP_ID", "API_KEY", SETTINGS);
+            AlgoliaClientCache.Lease otherKey = AlgoliaClientCache.lease("APP_ID", "OTHER_KEY", SETTINGS)
+        ) {
+            client = first.client();
+
+            assertThat(second.client(), sameInstance(client));
+            assertThat(otherKey.client(), not(sameInstance(client)));
+            assertThat(AlgoliaClientCache.evicting(), is(true));
+
+            // leased clients are never evicted
+            AlgoliaClientCache.evictIdle(Duration.ZERO);
+            assertThat(AlgoliaClientCache.evicting(), is(true));
+        }
+
+        // released but not idle for long enough
+        AlgoliaClientCache.evictIdle(Duration.ofMinutes(5));
+        try (AlgoliaClientCache.Lease lease = AlgoliaClientCache.lease("APP_ID", "API_KEY", SETTINGS)) {
+            assertThat(lease.client(), sameInstance(client));
+        }
+
+        // the last idle client closed stops the evictor, until the next lease
+        AlgoliaClientCache.evictIdle(Duration.ZERO);
+        assertThat(AlgoliaClientCache.evicting(), is(false));
+
+        try (AlgoliaClientCache.Lease lease = AlgoliaClientCache.lease("APP_ID", "API_KEY", SETTINGS)) {
+            assertThat(lease.client(), not(sameInstance(client)));
+            assertThat(AlgoliaClientCache.evicting(), is(true));
+        }
+    }
+
+    @Test
+    void releaseLeaseOnce() {
+        AlgoliaClientCache.Lease lease = AlgoliaClientCache.lease("APP_ID", "API_KEY", SETTINGS);
+        try (AlgoliaClientCache.Lease other = AlgoliaClientCache.lease("APP_ID", "API_KEY", SETTINGS)) {
+            lease.close();
+            lease.close();
+
+            // a lease closed twice must not release the one still held
+            AlgoliaClientCache.evictIdle(Duration.ZERO);
+            assertThat(AlgoliaClientCache.evicting(), is(true));
+            assertThat(other.client(), notNullValue());
+        }
+
+        AlgoliaClientCache.evictIdle(Duration.ZERO);
+        assertThat(AlgoliaClientCache.evicting(), is(false));
+    }
+}
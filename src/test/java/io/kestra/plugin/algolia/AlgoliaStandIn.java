@@ -0,0 +1,547 @@
+package io.kestra.plugin.algolia;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * In-process stand-in of the Algolia REST API, used to run the tasks offline against a local server.
+ * <p>
+ * Records are kept in memory per index and every write task is published immediately, or after a delay set with
+ * {@link #publishAfter(Duration)}. Only the endpoints used by
+ * the plugin are implemented: batch, query, browse, multi-query, multi-get, deleteByQuery, operation, settings,
+ * task status and index deletion. Search matches {@code query} as a case-insensitive substring of any string attribute,
+ * {@code filters} as a single {@code attribute:value} equality and {@code numericFilters} as a list of comparisons; {@code attributesToRetrieve} is honored.
+ * <p>
+ * Latency, error injection and a payload limit can be configured to exercise retries and chunk sizing.
+ */
+class AlgoliaStandIn implements AutoCloseable {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+    private static final Pattern INDEX_PATH = Pattern.compile("^/1/indexes/([^/]+)(?:/(.+))?$");
+    private static final Pattern NUMERIC_FILTER = Pattern.compile("^\\s*([\\w.]+)\\s*(>=|<=|!=|>|<|=)\\s*(-?[\\d.]+)\\s*$");
+
+    private final HttpServer server;
+    private final Map<String, Map<String, Map<String, Object>>> indices = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Object>> settings = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Map<String, Object>>> synonyms = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Map<String, Object>>> rules = new ConcurrentHashMap<>();
+    private final AtomicInteger configWrites = new AtomicInteger();
+    private final AtomicLong taskIds = new AtomicLong();
+    private final Map<Long, Long> taskPublications = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger batches = new AtomicInteger();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration publishAfter = Duration.ZERO;
+    private volatile long maxPayloadBytes = Long.MAX_VALUE;
+    private volatile double errorRate = 0;
+    private volatile int errorStatus = 503;
+    private final AtomicInteger failNext = new AtomicInteger();
+    private volatile int failAfter = Integer.MAX_VALUE;
+
+    AlgoliaStandIn() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+
+    /**
+     * Base URL to use as the task {@code hosts}.
+     */
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    AlgoliaStandIn latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Report every task created from now on as not published until {@code delay} has passed since its creation.
+     */
+    AlgoliaStandIn publishAfter(Duration delay) {
+        this.publishAfter = delay;
+        return this;
+    }
+
+    AlgoliaStandIn maxPayloadBytes(long maxPayloadBytes) {
+        this.maxPayloadBytes = maxPayloadBytes;
+        return this;
+    }
+
+    /**
+     * Answer a random share of the requests with the given HTTP status.
+     */
+    AlgoliaStandIn errorRate(double errorRate, int status) {
+        this.errorRate = errorRate;
+        this.errorStatus = status;
+        return this;
+    }
+
+    /**
+     * Answer the next {@code count} requests with the given HTTP status.
+     */
+    AlgoliaStandIn failNext(int count, int status) {
+        this.errorStatus = status;
+        this.failNext.set(count);
+        return this;
+    }
+
+    /**
+     * Answer every request after the next {@code count} ones with the given HTTP status, until {@link #recover()}.
+     */
+    AlgoliaStandIn failAfter(int count, int status) {
+        this.errorStatus = status;
+        this.failAfter = requests.get() + count;
+        return this;
+    }
+
+    /**
+     * Stop every injected failure.
+     */
+    AlgoliaStandIn recover() {
+        this.errorRate = 0;
+        this.failNext.set(0);
+        this.failAfter = Integer.MAX_VALUE;
+        return this;
+    }
+
+    boolean exists(String indexName) {
+        return indices.containsKey(indexName);
+    }
+
+    Map<String, Map<String, Object>> records(String indexName) {
+        return indices.getOrDefault(indexName, Map.of());
+    }
+
+    void put(String indexName, List<Map<String, Object>> records) {
+        Map<String, Map<String, Object>> index = this.index(indexName);
+        records.forEach(record -> index.put(String.valueOf(record.get("objectID")), new LinkedHashMap<>(record)));
+    }
+
+    Map<String, Object> settings(String indexName) {
+        return settings.getOrDefault(indexName, Map.of());
+    }
+
+    Map<String, Map<String, Object>> synonyms(String indexName) {
+        return synonyms.getOrDefault(indexName, Map.of());
+    }
+
+    Map<String, Map<String, Object>> rules(String indexName) {
+        return rules.getOrDefault(indexName, Map.of());
+    }
+
+    /**
+     * Number of settings, synonyms and rules updates received.
+     */
+    int configWrites() {
+        return configWrites.get();
+    }
+
+    int requests() {
+        return requests.get();
+    }
+
+    int batches() {
+        return batches.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            int number = requests.incrementAndGet();
+
+            if (!latency.isZero()) {
+                Thread.sleep(latency.toMillis());
+            }
+
+            byte[] body = this.readBody(exchange);
+            if (body.length > maxPayloadBytes) {
+                this.error(exchange, 413, "Request too large: " + body.length + " bytes");
+                return;
+            }
+
+            if (
+                failNext.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0 ||
+                number > failAfter ||
+                (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate)
+            ) {
+                this.error(exchange, errorStatus, "Injected failure");
+                return;
+            }
+
+            this.route(exchange, body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            this.error(exchange, 400, e.getMessage());
+        }
+    }
+
+    private void route(HttpExchange exchange, byte[] body) throws IOException {
+        String method = exchange.getRequestMethod();
+        Matcher matcher = INDEX_PATH.matcher(exchange.getRequestURI().getRawPath());
+        if (!matcher.matches()) {
+            this.error(exchange, 404, "Unknown path " + exchange.getRequestURI());
+            return;
+        }
+
+        String indexName = URLDecoder.decode(matcher.group(1), StandardCharsets.UTF_8);
+        String action = matcher.group(2) != null ? matcher.group(2) : "";
+        Object parsed = body.length > 0 ? MAPPER.readValue(body, Object.class) : Map.of();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> request = parsed instanceof Map<?, ?> map ? (Map<String, Object>) map : Map.of();
+
+        if (indexName.equals("*")) {
+            switch (action) {
+                case "queries" -> this.respond(exchange, this.multiQuery(request));
+                case "objects" -> this.respond(exchange, this.multiGet(request));
+                default -> this.error(exchange, 404, "Unknown path " + exchange.getRequestURI());
+            }
+            return;
+        }
+
+        if (action.startsWith("task/")) {
+            Long publishedAt = taskPublications.get(Long.parseLong(action.substring("task/".length())));
+            boolean published = publishedAt == null || System.nanoTime() - publishedAt >= 0;
+            this.respond(exchange, Map.of("status", published ? "published" : "notPublished", "pendingTask", !published));
+            return;
+        }
+
+        switch (method + " " + action) {
+            case "POST batch" -> this.respond(exchange, this.batch(indexName, request));
+            case "POST query" -> this.respond(exchange, this.search(indexName, request, false));
+            case "POST browse" -> this.respond(exchange, this.search(indexName, request, true));
+            case "POST deleteByQuery" -> this.respond(exchange, this.deleteBy(indexName, request));
+            case "POST operation" -> {
+                // as Algolia, moving an index that does not exist fails, while copying it only creates the destination
+                if ("move".equals(request.get("operation")) && !indices.containsKey(indexName)) {
+                    this.error(exchange, 404, "Index does not exist");
+                } else {
+                    this.respond(exchange, this.operation(indexName, request));
+                }
+            }
+            case "GET settings" -> {
+                if (indices.containsKey(indexName)) {
+                    this.respond(exchange, this.settings(indexName));
+                } else {
+                    this.error(exchange, 404, "Index does not exist");
+                }
+            }
+            case "PUT settings" -> {
+                this.index(indexName);
+                settings.computeIfAbsent(indexName, name -> new ConcurrentHashMap<>()).putAll(request);
+                this.respond(exchange, this.configWrite("updatedAt"));
+            }
+            case "POST synonyms/search" -> this.respond(exchange, this.page(this.synonyms(indexName), request));
+            case "POST rules/search" -> this.respond(exchange, this.page(this.rules(indexName), request));
+            case "POST synonyms/batch" -> this.respond(exchange, this.save(synonyms, indexName, parsed, this.flag(exchange, "replaceExistingSynonyms")));
+            case "POST rules/batch" -> this.respond(exchange, this.save(rules, indexName, parsed, this.flag(exchange, "clearExistingRules")));
+            case "DELETE " -> {
+                indices.remove(indexName);
+                this.respond(exchange, Map.of("taskID", this.task(), "deletedAt", "1970-01-01T00:00:00.000Z"));
+            }
+            default -> {
+                if (method.equals("DELETE") && action.startsWith("synonyms/")) {
+                    synonyms.computeIfAbsent(indexName, name -> new ConcurrentHashMap<>()).remove(URLDecoder.decode(action.substring("synonyms/".length()), StandardCharsets.UTF_8));
+                    this.respond(exchange, this.configWrite("deletedAt"));
+                } else if (method.equals("DELETE") && action.startsWith("rules/")) {
+                    rules.computeIfAbsent(indexName, name -> new ConcurrentHashMap<>()).remove(URLDecoder.decode(action.substring("rules/".length()), StandardCharsets.UTF_8));
+                    this.respond(exchange, this.configWrite("updatedAt"));
+                } else {
+                    this.error(exchange, 404, "Unknown path " + exchange.getRequestURI());
+                }
+            }
+        }
+    }
+
+    /**
+     * Create a task, published once the current {@code publishAfter} delay has passed.
+     */
+    private long task() {
+        long taskId = taskIds.incrementAndGet();
+        if (!publishAfter.isZero()) {
+            taskPublications.put(taskId, System.nanoTime() + publishAfter.toNanos());
+        }
+
+        return taskId;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> batch(String indexName, Map<String, Object> request) {
+        batches.incrementAndGet();
+        Map<String, Map<String, Object>> index = this.index(indexName);
+        List<String> objectIds = new ArrayList<>();
+
+        for (Map<String, Object> operation : (List<Map<String, Object>>) request.get("requests")) {
+            Map<String, Object> record = (Map<String, Object>) operation.get("body");
+            String objectId = String.valueOf(record.get("objectID"));
+            objectIds.add(objectId);
+
+            switch ((String) operation.get("action")) {
+                case "addObject", "updateObject" -> index.put(objectId, new LinkedHashMap<>(record));
+                case "partialUpdateObject" -> index.computeIfAbsent(objectId, id -> new LinkedHashMap<>()).putAll(record);
+                case "partialUpdateObjectNoCreate" -> index.computeIfPresent(objectId, (id, existing) -> {
+                    existing.putAll(record);
+                    return existing;
+                });
+                case "deleteObject" -> index.remove(objectId);
+                default -> throw new IllegalArgumentException("Unsupported action " + operation.get("action"));
+            }
+        }
+
+        return Map.of("taskID", this.task(), "objectIDs", objectIds);
+    }
+
+    private Map<String, Object> search(String indexName, Map<String, Object> request, boolean browse) {
+        List<Map<String, Object>> matching = this.matching(indexName, request);
+
+        int hitsPerPage = request.get("hitsPerPage") instanceof Number number ? number.intValue() : (browse ? 1000 : 20);
+        int offset;
+        if (browse) {
+            offset = request.get("cursor") instanceof String cursor ? Integer.parseInt(cursor) : 0;
+        } else {
+            offset = (request.get("page") instanceof Number number ? number.intValue() : 0) * hitsPerPage;
+        }
+
+        List<Map<String, Object>> hits = matching.subList(Math.min(offset, matching.size()), Math.min(offset + hitsPerPage, matching.size()))
+            .stream()
+            .map(record -> this.project(record, request.get("attributesToRetrieve")))
+            .toList();
+        int nbPages = (matching.size() + hitsPerPage - 1) / hitsPerPage;
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("hits", hits);
+        response.put("nbHits", matching.size());
+        response.put("page", offset / hitsPerPage);
+        response.put("nbPages", nbPages);
+        response.put("hitsPerPage", hitsPerPage);
+        response.put("processingTimeMS", 1);
+        response.put("exhaustiveNbHits", true);
+        response.put("query", request.getOrDefault("query", ""));
+        response.put("params", "");
+        response.put("index", indexName);
+        if (browse && offset + hitsPerPage < matching.size()) {
+            response.put("cursor", String.valueOf(offset + hitsPerPage));
+        }
+
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> multiQuery(Map<String, Object> request) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Map<String, Object> query : (List<Map<String, Object>>) request.get("requests")) {
+            results.add(this.search((String) query.get("indexName"), query, false));
+        }
+
+        return Map.of("results", results);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> multiGet(Map<String, Object> request) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Map<String, Object> get : (List<Map<String, Object>>) request.get("requests")) {
+            Map<String, Object> record = this.records((String) get.get("indexName")).get(String.valueOf(get.get("objectID")));
+            results.add(record != null ? this.project(record, get.get("attributesToRetrieve")) : null);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("results", results);
+        return response;
+    }
+
+    private Map<String, Object> deleteBy(String indexName, Map<String, Object> request) {
+        this.matching(indexName, request).forEach(record -> this.index(indexName).remove(String.valueOf(record.get("objectID"))));
+
+        return Map.of("taskID", this.task(), "updatedAt", "1970-01-01T00:00:00.000Z");
+    }
+
+    private Map<String, Object> operation(String indexName, Map<String, Object> request) {
+        String destination = (String) request.get("destination");
+        String operation = (String) request.get("operation");
+
+        Map<String, Map<String, Object>> source = this.index(indexName);
+        if (operation.equals("move")) {
+            indices.put(destination, source);
+            indices.remove(indexName);
+        } else if (request.get("scope") == null) {
+            indices.put(destination, new ConcurrentHashMap<>(source));
+        } else {
+            // settings, synonyms and rules are not stored, copying them only creates the destination
+            this.index(destination);
+        }
+
+        return Map.of("taskID", this.task(), "updatedAt", "1970-01-01T00:00:00.000Z");
+    }
+
+    private Map<String, Object> page(Map<String, Map<String, Object>> definitions, Map<String, Object> request) {
+        int hitsPerPage = request.get("hitsPerPage") instanceof Number number ? number.intValue() : 100;
+        int page = request.get("page") instanceof Number number ? number.intValue() : 0;
+
+        List<Map<String, Object>> all = definitions.values().stream()
+            .sorted(Comparator.comparing(definition -> String.valueOf(definition.get("objectID"))))
+            .toList();
+        List<Map<String, Object>> hits = all.subList(Math.min(page * hitsPerPage, all.size()), Math.min((page + 1) * hitsPerPage, all.size()));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("hits", hits);
+        response.put("nbHits", all.size());
+        response.put("page", page);
+        response.put("nbPages", (all.size() + hitsPerPage - 1) / hitsPerPage);
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> save(Map<String, Map<String, Map<String, Object>>> store, String indexName, Object definitions, boolean replace) {
+        this.index(indexName);
+        Map<String, Map<String, Object>> saved = store.computeIfAbsent(indexName, name -> new ConcurrentHashMap<>());
+        if (replace) {
+            saved.clear();
+        }
+        for (Map<String, Object> definition : (List<Map<String, Object>>) definitions) {
+            saved.put(String.valueOf(definition.get("objectID")), new LinkedHashMap<>(definition));
+        }
+
+        return this.configWrite("updatedAt");
+    }
+
+    private boolean flag(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        return query != null && Arrays.asList(query.split("&")).contains(name + "=true");
+    }
+
+    private Map<String, Object> configWrite(String dateField) {
+        configWrites.incrementAndGet();
+        return Map.of("taskID", this.task(), dateField, "1970-01-01T00:00:00.000Z");
+    }
+
+    private List<Map<String, Object>> matching(String indexName, Map<String, Object> request) {
+        String query = ((String) request.getOrDefault("query", "")).toLowerCase(Locale.ROOT);
+        String filters = (String) request.get("filters");
+
+        return this.records(indexName).values().stream()
+            .filter(record -> query.isEmpty() || record.values().stream()
+                .anyMatch(value -> value instanceof String string && string.toLowerCase(Locale.ROOT).contains(query)))
+            .filter(record -> filters == null || filters.isBlank() || this.matchesFilter(record, filters))
+            .filter(record -> this.matchesNumericFilters(record, request.get("numericFilters")))
+            .sorted((a, b) -> String.valueOf(a.get("objectID")).compareTo(String.valueOf(b.get("objectID"))))
+            .toList();
+    }
+
+    private boolean matchesFilter(Map<String, Object> record, String filters) {
+        int separator = filters.indexOf(':');
+        String attribute = filters.substring(0, separator).trim();
+        String value = filters.substring(separator + 1).trim().replace("\"", "");
+
+        return record.containsKey(attribute) && String.valueOf(record.get(attribute)).equals(value);
+    }
+
+    private boolean matchesNumericFilters(Map<String, Object> record, Object numericFilters) {
+        List<?> comparisons = numericFilters instanceof List<?> list ? list : numericFilters != null ? List.of(numericFilters) : List.of();
+
+        for (Object comparison : comparisons) {
+            Matcher matcher = NUMERIC_FILTER.matcher(String.valueOf(comparison));
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Unsupported numeric filter " + comparison);
+            }
+
+            if (!(record.get(matcher.group(1)) instanceof Number number)) {
+                return false;
+            }
+
+            int compare = new BigDecimal(number.toString()).compareTo(new BigDecimal(matcher.group(3)));
+            boolean matches = switch (matcher.group(2)) {
+                case ">" -> compare > 0;
+                case ">=" -> compare >= 0;
+                case "<" -> compare < 0;
+                case "<=" -> compare <= 0;
+                case "!=" -> compare != 0;
+                default -> compare == 0;
+            };
+
+            if (!matches) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private Map<String, Object> project(Map<String, Object> record, Object attributesToRetrieve) {
+        if (!(attributesToRetrieve instanceof List<?> attributes) || attributes.contains("*")) {
+            return record;
+        }
+
+        Map<String, Object> projected = new LinkedHashMap<>();
+        projected.put("objectID", record.get("objectID"));
+        attributes.forEach(attribute -> {
+            if (record.containsKey((String) attribute)) {
+                projected.put((String) attribute, record.get(attribute));
+            }
+        });
+
+        return projected;
+    }
+
+    private Map<String, Map<String, Object>> index(String indexName) {
+        return indices.computeIfAbsent(indexName, name -> new ConcurrentHashMap<>());
+    }
+
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        InputStream input = exchange.getRequestBody();
+        if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            input = new GZIPInputStream(input);
+        }
+
+        return input.readAllBytes();
+    }
+
+    private void respond(HttpExchange exchange, Object response) throws IOException {
+        this.write(exchange, 200, MAPPER.writeValueAsBytes(response));
+    }
+
+    private void error(HttpExchange exchange, int status, String message) throws IOException {
+        this.write(exchange, status, MAPPER.writeValueAsBytes(Map.of("message", String.valueOf(message), "status", status)));
+    }
+
+    private void write(HttpExchange exchange, int status, byte[] bytes) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,678 @@
+package io.kestra.plugin.algolia;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.algolia.model.search.Action;
+import com.algolia.model.search.BatchRequest;
+import com.google.common.collect.ImmutableMap;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.AbstractMetricEntry;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.common.FetchType;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.utils.IdUtils;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the tasks end to end against {@link AlgoliaStandIn}, so they are exercised without Algolia credentials.
+ */
+@KestraTest
+class AlgoliaStandInTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    private AlgoliaStandIn standIn;
+
+    @BeforeEach
+    void start() throws Exception {
+        standIn = new AlgoliaStandIn();
+    }
+
+    @AfterEach
+    void stop() {
+        standIn.close();
+    }
+
+    private RunContext getRunContext() {
+        return runContextFactory.of(
+            Map.of(
+                "flow", ImmutableMap.of("id", "algolia-stand-in-test", "namespace", "company.team"),
+                "execution", ImmutableMap.of("id", "#12345", "flowId", "algolia-stand-in-test", "namespace", "company.team"),
+                "duration", Duration.ofMillis(123456)
+            )
+        );
+    }
+
+    @Test
+    void indexFromStorageInParallel() throws Exception {
+        RunContext runContext = getRunContext();
+        standIn.latency(Duration.ofMillis(20));
+
+        Index task = Index.builder()
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .indexName(Property.ofValue("products"))
+            .from(Property.ofValue(this.records(runContext, 250).toString()))
+            .chunkSize(Property.ofValue(10))
+            .concurrency(Property.ofValue(8))
+            .waitForIndexing(Property.ofValue(true))
+            .build();
+
+        Index.Output output = task.run(runContext);
+
+        assertThat(output.getCount(), is(250L));
+        assertThat(output.getBatches(), is(25));
+        assertThat(standIn.batches(), is(25));
+        assertThat(standIn.records("products").size(), is(250));
+    }
+
+    @Test
+    void retryThrottledBatches() throws Exception {
+        RunContext runContext = getRunContext();
+        standIn.failNext(2, 429);
+
+        Index task = Index.builder()
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .indexName(Property.ofValue("products"))
+            .from(Property.ofValue(this.records(runContext, 30).toString()))
+            .chunkSize(Property.ofValue(10))
+            .concurrency(Property.ofValue(1))
+            .build();
+
+        Index.Output output = task.run(runContext);
+
+        assertThat(output.getCount(), is(30L));
+        assertThat(standIn.batches(), is(3));
+        assertThat(standIn.records("products").size(), is(30));
+        assertThat(metric(runContext, "records"), is(30.0));
+        assertThat(metric(runContext, "batches"), is(3.0));
+        assertThat(metric(runContext, "retries"), is(2.0));
+        assertThat(metric(runContext, "batch.duration.count"), is(3.0));
+        assertThat(metric(runContext, "batch.duration"), instanceOf(Duration.class));
+    }
+
+    @Test
+    void waitForDelayedPublication() throws Exception {
+        RunContext runContext = getRunContext();
+        standIn.publishAfter(Duration.ofMillis(500));
+
+        Index task = Index.builder()
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .indexName(Property.ofValue("products"))
+            .from(Property.ofValue(this.records(runContext, 20).toString()))
+            .chunkSize(Property.ofValue(10))
+            .waitForIndexing(Property.ofValue(true))
+            .waitTimeout(Property.ofValue(Duration.ofSeconds(30)))
+            .build();
+
+        Index.Output output = task.run(runContext);
+
+        assertThat(output.getTaskIds(), hasSize(2));
+        // the tasks were polled until published, not reported published at once
+        assertThat((Duration) metric(runContext, "wait.duration"), greaterThan(Duration.ofMillis(100)));
+    }
+
+    @Test
+    void timeoutWaitingForPublication() throws Exception {
+        RunContext runContext = getRunContext();
+        standIn.publishAfter(Duration.ofMinutes(1));
+
+        Index task = Index.builder()
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .indexName(Property.ofValue("products"))
+            .from(Property.ofValue(this.records(runContext, 20).toString()))
+            .chunkSize(Property.ofValue(10))
+            .waitForIndexing(Property.ofValue(true))
+            .waitTimeout(Property.ofValue(Duration.ofMillis(300)))
+            .build();
+
+        TimeoutException e = assertThrows(TimeoutException.class, () -> task.run(runContext));
+        assertThat(e.getMessage(), containsString("was not published within"));
+        // the records are written, only their publication is not awaited further
+        assertThat(standIn.records("products").size(), is(20));
+    }
+
+    @Test
+    void splitBatchesUnderPayloadLimit() throws Exception {
+        RunContext runContext = getRunContext();
+        standIn.maxPayloadBytes(4 * 1024);
+
+        Index task = Index.builder()
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .indexName(Property.ofValue("products"))
+            .from(Property.ofValue(this.records(runContext, 100).toString()))
+            .maxBatchBytes(Property.ofValue(3L * 1024))
+            .build();
+
+        Index.Output output = task.run(runContext);
+
+        assertThat(output.getCount(), is(100L));
+        assertThat(output.getBatches(), greaterThan(1));
+        assertThat(standIn.records("products").size(), is(100));
+    }
+
+    @Test
+    void indexWithGzipAndTimeouts() throws Exception {
+        RunContext runContext = getRunContext();
+
+        Index task = Index.builder()
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .clientOptions(AbstractAlgoliaTask.ClientOptions.builder()
+                .connectTimeout(Property.ofValue(Duration.ofSeconds(5)))
+                .writeTimeout(Property.ofValue(Duration.ofSeconds(60)))
+                .gzip(Property.ofValue(true))
+                .build()
+            )
+            .indexName(Property.ofValue("products"))
+            .from(Property.ofValue(this.records(runContext, 50).toString()))
+            .build();
+
+        Index.Output output = task.run(runContext);
+
+        assertThat(output.getCount(), is(50L));
+        assertThat(standIn.records("products").size(), is(50));
+    }
+
+    @Test
+    void resumeFromCheckpoint() throws Exception {
+        RunContext runContext = getRunContext();
+        URI records = this.records(runContext, 50);
+        standIn.failAfter(3, 400);
+
+        Index task = Index.builder()
+            .id("resumable_import")
+            .type(Index.class.getName())
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .indexName(Property.ofValue("products"))
+            .from(Property.ofValue(records.toString()))
+            .chunkSize(Property.ofValue(10))
+            .concurrency(Property.ofValue(1))
+            .checkpoint(Property.ofValue(true))
+            .build();
+
+        assertThrows(Exception.class, () -> task.run(runContext));
+        assertThat(standIn.records("products").size(), is(30));
+        // only the acknowledged records count, not the ones queued behind the failed batch
+        assertThat(metric(runContext, "records"), is(30.0));
+        assertThat(metric(runContext, "batches"), is(3.0));
+
+        standIn.recover();
+        int batches = standIn.batches();
+
+        Index.Output output = task.run(runContext);
+
+        assertThat(output.getResumedFrom(), is(30L));
+        assertThat(output.getCount(), is(20L));
+        // the latest taskID of the failed attempt, then one per new batch
+        assertThat(output.getTaskIds(), hasSize(3));
+        assertThat(standIn.batches() - batches, is(2));
+        assertThat(standIn.records("products").size(), is(50));
+
+        // the checkpoint is dropped on success, so the next run starts over
+        Index.Output again = task.run(runContext);
+        assertThat(again.getResumedFrom(), is(0L));
+        assertThat(again.getCount(), is(50L));
+    }
+
+    @Test
+    void fanOutToTargets() throws Exception {
+        RunContext runContext = getRunContext();
+
+        try (AlgoliaStandIn replica = new AlgoliaStandIn()) {
+            Index task = Index.builder()
+                .applicationId(Property.ofValue("APP_ID"))
+                .apiKey(Property.ofValue("API_KEY"))
+                .hosts(Property.ofValue(List.of(standIn.url())))
+                .indexName(Property.ofValue("products"))
+                .from(Property.ofValue(this.records(runContext, 40).toString()))
+                .chunkSize(Property.ofValue(10))
+                .targets(List.of(
+                    AbstractAlgoliaWriteTask.Target.builder()
+                        .indexName(Property.ofValue("products_staging"))
+                        .build(),
+                    AbstractAlgoliaWriteTask.Target.builder()
+                        .applicationId(Property.ofValue("REPLICA_APP_ID"))
+                        .apiKey(Property.ofValue("REPLICA_API_KEY"))
+                        .hosts(Property.ofValue(List.of(replica.url())))
+                        .indexName(Property.ofValue("products"))
+                        .build()
+                ))
+                .build();
+
+            Index.Output output = task.run(runContext);
+
+            assertThat(output.getCount(), is(40L));
+            assertThat(output.getTargets(), hasSize(2));
+            assertThat(output.getTargets().getFirst().getIndexName(), is("products_staging"));
+            assertThat(output.getTargets().getFirst().getCount(), is(40L));
+            assertThat(output.getTargets().get(1).getApplicationId(), is("REPLICA_APP_ID"));
+            assertThat(output.getTargets().get(1).getBatches(), is(4));
+            assertThat(standIn.records("products").size(), is(40));
+            assertThat(standIn.records("products_staging").size(), is(40));
+            assertThat(replica.records("products").size(), is(40));
+
+            Delete delete = Delete.builder()
+                .applicationId(Property.ofValue("APP_ID"))
+                .apiKey(Property.ofValue("API_KEY"))
+                .hosts(Property.ofValue(List.of(standIn.url())))
+                .indexName(Property.ofValue("products"))
+                .objectIds(Property.ofValue(List.of("stand_in_0", "stand_in_1")))
+                .targets(task.getTargets())
+                .build();
+
+            Delete.Output deleted = delete.run(runContext);
+
+            assertThat(deleted.getTargets(), hasSize(2));
+            assertThat(standIn.records("products").size(), is(38));
+            assertThat(standIn.records("products_staging").size(), is(38));
+            assertThat(replica.records("products").size(), is(38));
+        }
+    }
+
+    @Test
+    void ignoreFailingTarget() throws Exception {
+        RunContext runContext = getRunContext();
+
+        try (AlgoliaStandIn replica = new AlgoliaStandIn()) {
+            replica.failAfter(1, 400);
+
+            Index.IndexBuilder<?, ?> builder = Index.builder()
+                .applicationId(Property.ofValue("APP_ID"))
+                .apiKey(Property.ofValue("API_KEY"))
+                .hosts(Property.ofValue(List.of(standIn.url())))
+                .indexName(Property.ofValue("products"))
+                .from(Property.ofValue(this.records(runContext, 40).toString()))
+                .chunkSize(Property.ofValue(10))
+                .concurrency(Property.ofValue(1))
+                .targets(List.of(
+                    AbstractAlgoliaWriteTask.Target.builder()
+                        .hosts(Property.ofValue(List.of(replica.url())))
+                        .indexName(Property.ofValue("products"))
+                        .build()
+                ));
+
+            assertThrows(IllegalStateException.class, () -> builder.build().run(runContext));
+
+            replica.failAfter(1, 400);
+            Index.Output output = builder.ignoreTargetErrors(Property.ofValue(true)).build().run(runContext);
+
+            assertThat(output.getCount(), is(40L));
+            assertThat(standIn.records("products").size(), is(40));
+            assertThat(output.getTargets().getFirst().getError(), notNullValue());
+            assertThat(replica.records("products").size(), lessThan(40));
+        }
+    }
+
+    @Test
+    void splitLongRecords() throws Exception {
+        RunContext runContext = getRunContext();
+
+        StringBuilder manual = new StringBuilder();
+        for (int paragraph = 0; paragraph < 20; paragraph++) {
+            for (int sentence = 0; sentence < 10; sentence++) {
+                manual.append("Paragraph ").append(paragraph).append(" explains step ").append(sentence).append(" of the setup. ");
+            }
+            manual.append("\n\n");
+        }
+
+        Index task = Index.builder()
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .indexName(Property.ofValue("manuals"))
+            .objects(Property.ofValue(List.of(
+                Map.of("objectID", "manual", "title", "Setup guide", "content", manual.toString()),
+                Map.of("objectID", "short", "title", "Notice", "content", "Read the manual first."),
+                Map.of("objectID", "untouched", "title", "No content")
+            )))
+            .split(Index.Split.builder()
+                .attribute(Property.ofValue("content"))
+                .maxBytes(Property.ofValue(1024))
+                .build())
+            .build();
+
+        Index.Output output = task.run(runContext);
+
+        Map<String, Map<String, Object>> records = standIn.records("manuals");
+        assertThat(records.get("untouched"), notNullValue());
+        assertThat(records.get("short-0").get("content"), is("Read the manual first."));
+        assertThat(records.get("short-0").get("parentObjectID"), is("short"));
+
+        List<Map<String, Object>> chunks = records.values().stream()
+            .filter(record -> "manual".equals(record.get("parentObjectID")))
+            .toList();
+        assertThat(chunks.size(), greaterThan(1));
+        assertThat(output.getCount(), is(chunks.size() + 2L));
+
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < chunks.size(); i++) {
+            Map<String, Object> chunk = records.get("manual-" + i);
+            String content = (String) chunk.get("content");
+
+            assertThat(chunk.get("title"), is("Setup guide"));
+            assertThat(content.getBytes(StandardCharsets.UTF_8).length, lessThanOrEqualTo(1024));
+            // every chunk ends on a sentence boundary
+            assertThat(content, endsWith("."));
+            joined.append(content).append(" ");
+        }
+        assertThat(joined.toString().replaceAll("\\s+", " ").strip(), is(manual.toString().replaceAll("\\s+", " ").strip()));
+    }
+
+    @Test
+    void deleteLeftoverChunksOfShrunkDocuments() throws Exception {
+        RunContext runContext = getRunContext();
+
+        Index.IndexBuilder<?, ?> builder = Index.builder()
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .indexName(Property.ofValue("guides"))
+            .incremental(Property.ofValue(true))
+            .deleteMissing(Property.ofValue(true))
+            .stateKey(Property.ofValue(IdUtils.create()))
+            .split(Index.Split.builder()
+                .attribute(Property.ofValue("content"))
+                .maxBytes(Property.ofValue(20))
+                .build());
+
+        builder
+            .objects(Property.ofValue(List.of(Map.of("objectID", "guide", "content", "First step.\n\nSecond step.\n\nThird step."))))
+            .build()
+            .run(runContext);
+
+        assertThat(standIn.records("guides").keySet(), containsInAnyOrder("guide-0", "guide-1", "guide-2"));
+
+        Index.Output shrunk = builder
+            .objects(Property.ofValue(List.of(Map.of("objectID", "guide", "content", "Only step."))))
+            .build()
+            .run(runContext);
+
+        assertThat(shrunk.getDeleted(), is(2L));
+        assertThat(standIn.records("guides").keySet(), contains("guide-0"));
+        assertThat(standIn.records("guides").get("guide-0").get("content"), is("Only step."));
+    }
+
+    @Test
+    void retryOversizeRecordsOnNextIncrementalRun() throws Exception {
+        RunContext runContext = getRunContext();
+
+        Index.IndexBuilder<?, ?> builder = Index.builder()
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .indexName(Property.ofValue("articles"))
+            .incremental(Property.ofValue(true))
+            .stateKey(Property.ofValue(IdUtils.create()))
+            .maxRecordBytes(Property.ofValue(1024L))
+            .onOversizeRecord(Property.ofValue(AbstractAlgoliaWriteTask.OversizeRecordBehavior.SKIP));
+
+        Index.Output first = builder
+            .objects(Property.ofValue(List.of(
+                Map.of("objectID", "small", "content", "Short"),
+                Map.of("objectID", "large", "content", "x".repeat(2048))
+            )))
+            .build()
+            .run(runContext);
+
+        assertThat(first.getCount(), is(1L));
+        assertThat(first.getOversizeCount(), is(1L));
+
+        // the record now fits: it was never indexed, so it must not be reported as unchanged
+        Index.Output second = builder
+            .objects(Property.ofValue(List.of(
+                Map.of("objectID", "small", "content", "Short"),
+                Map.of("objectID", "large", "content", "x".repeat(2048))
+            )))
+            .maxRecordBytes(Property.ofValue(4096L))
+            .build()
+            .run(runContext);
+
+        assertThat(second.getCount(), is(1L));
+        assertThat(second.getUnchanged(), is(1L));
+        assertThat(standIn.records("articles").keySet(), containsInAnyOrder("small", "large"));
+    }
+
+    @Test
+    void neverDeleteRecordsThatGrewOversize() throws Exception {
+        RunContext runContext = getRunContext();
+
+        Index.IndexBuilder<?, ?> builder = Index.builder()
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .indexName(Property.ofValue("grown"))
+            .incremental(Property.ofValue(true))
+            .deleteMissing(Property.ofValue(true))
+            .stateKey(Property.ofValue(IdUtils.create()))
+            .maxRecordBytes(Property.ofValue(1024L))
+            .onOversizeRecord(Property.ofValue(AbstractAlgoliaWriteTask.OversizeRecordBehavior.SKIP));
+
+        Index.Output first = builder
+            .objects(Property.ofValue(List.of(
+                Map.of("objectID", "small", "content", "Short"),
+                Map.of("objectID", "large", "content", "Short too")
+            )))
+            .build()
+            .run(runContext);
+
+        assertThat(first.getCount(), is(2L));
+
+        // the record grew past the limit: skipped, but still in the source, twice in a row
+        List<Map<String, Object>> grown = List.of(
+            Map.of("objectID", "small", "content", "Short"),
+            Map.of("objectID", "large", "content", "x".repeat(2048))
+        );
+        for (int i = 0; i < 2; i++) {
+            Index.Output output = builder
+                .objects(Property.ofValue(grown))
+                .build()
+                .run(runContext);
+
+            assertThat(output.getOversizeCount(), is(1L));
+            assertThat(output.getUnchanged(), is(1L));
+            assertThat(output.getDeleted(), is(0L));
+            assertThat(standIn.records("grown").keySet(), containsInAnyOrder("small", "large"));
+        }
+
+        // once it leaves the source, it is deleted as any other record
+        Index.Output removed = builder
+            .objects(Property.ofValue(List.of(Map.of("objectID", "small", "content", "Short"))))
+            .build()
+            .run(runContext);
+
+        assertThat(removed.getDeleted(), is(1L));
+        assertThat(standIn.records("grown").keySet(), contains("small"));
+    }
+
+    @Test
+    void measureDeleteBodies() throws Exception {
+        // measured without copying the payload, to the byte of its UTF-8 serialization
+        Map<String, Object> body = Map.of("objectID", "caf\u00e9-\uD83D\uDE00");
+        assertThat(
+            BatchWriter.bodyBytes(new BatchRequest().setAction(Action.DELETE_OBJECT).setBody(body)),
+            is((long) JacksonMapper.ofJson().writeValueAsBytes(body).length)
+        );
+    }
+
+    @Test
+    void searchAndDelete() throws Exception {
+        RunContext runContext = getRunContext();
+        standIn.put("products", List.of(
+            Map.of("objectID", "1", "name", "Red T-shirt", "color", "red"),
+            Map.of("objectID", "2", "name", "Blue T-shirt", "color", "blue"),
+            Map.of("objectID", "3", "name", "Red Hoodie", "color", "red")
+        ));
+
+        Search search = Search.builder()
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .indexName(Property.ofValue("products"))
+            .params(Property.ofValue(Map.of("query", "t-shirt")))
+            .build();
+
+        Search.Output searchOutput = search.run(runContext);
+        assertThat(searchOutput.getNbHits(), is(2));
+
+        Search browse = Search.builder()
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .indexName(Property.ofValue("products"))
+            .params(Property.ofValue(Map.of("hitsPerPage", 1)))
+            .fetchType(Property.ofValue(FetchType.STORE))
+            .build();
+
+        Search.Output browseOutput = browse.run(runContext);
+        assertThat(browseOutput.getSize(), is(3L));
+
+        Delete delete = Delete.builder()
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .indexName(Property.ofValue("products"))
+            .deleteBy(Property.ofValue(Map.of("filters", "color:red")))
+            .waitForIndexing(Property.ofValue(true))
+            .build();
+
+        Delete.Output deleteOutput = delete.run(runContext);
+        assertThat(deleteOutput.getTaskIds(), hasSize(1));
+        assertThat(standIn.records("products").keySet(), contains("2"));
+    }
+
+    @Test
+    void retryThrottledDeleteBy() throws Exception {
+        RunContext runContext = getRunContext();
+        standIn.put("products", List.of(
+            Map.of("objectID", "1", "color", "red"),
+            Map.of("objectID", "2", "color", "blue")
+        ));
+        standIn.failNext(2, 429);
+
+        Delete delete = Delete.builder()
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .indexName(Property.ofValue("products"))
+            .deleteBy(Property.ofValue(Map.of("filters", "color:red")))
+            .build();
+
+        Delete.Output output = delete.run(runContext);
+
+        assertThat(output.getTaskIds(), hasSize(1));
+        assertThat(standIn.records("products").keySet(), contains("2"));
+        assertThat(metric(runContext, "retries"), is(2.0));
+        assertThat(metric(runContext, "batch.duration.count"), is(1.0));
+    }
+
+    @Test
+    void replaceWithNothing() throws Exception {
+        RunContext runContext = getRunContext();
+
+        ReplaceAllObjects.ReplaceAllObjectsBuilder<?, ?> builder = ReplaceAllObjects.builder()
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .objects(Property.ofValue(List.of()));
+
+        // no record and no existing index to copy: the temporary index must still exist to be moved
+        ReplaceAllObjects.Output created = builder
+            .indexName(Property.ofValue("created_empty"))
+            .build()
+            .run(runContext);
+
+        assertThat(created.getCount(), is(0L));
+        assertThat(created.getMoveTaskId(), notNullValue());
+        assertThat(standIn.exists("created_empty"), is(true));
+        assertThat(standIn.records("created_empty"), anEmptyMap());
+
+        // an existing index is emptied
+        standIn.put("emptied", List.of(Map.of("objectID", "1", "name", "Red T-shirt")));
+        ReplaceAllObjects.Output emptied = builder
+            .indexName(Property.ofValue("emptied"))
+            .build()
+            .run(runContext);
+
+        assertThat(emptied.getCount(), is(0L));
+        assertThat(standIn.records("emptied"), anEmptyMap());
+    }
+
+    @Test
+    void searchFromCache() throws Exception {
+        RunContext runContext = getRunContext();
+        SearchCache.clear();
+        standIn.put("products", List.of(Map.of("objectID", "1", "name", "Red T-shirt")));
+
+        Search search = Search.builder()
+            .applicationId(Property.ofValue("APP_ID"))
+            .apiKey(Property.ofValue("API_KEY"))
+            .hosts(Property.ofValue(List.of(standIn.url())))
+            .indexName(Property.ofValue("products"))
+            .params(Property.ofValue(Map.of("query", "t-shirt", "hitsPerPage", 5)))
+            .cacheTtl(Property.ofValue(Duration.ofMinutes(1)))
+            .build();
+
+        Search.Output first = search.run(runContext);
+        assertThat(first.getCacheHit(), is(false));
+        int requests = standIn.requests();
+
+        Search.Output second = search.run(runContext);
+        assertThat(second.getCacheHit(), is(true));
+        assertThat(second.getNbHits(), is(1));
+        assertThat(second.getHits(), hasSize(1));
+        assertThat(standIn.requests(), is(requests));
+    }
+
+    private static Object metric(RunContext runContext, String name) {
+        return runContext.metrics().stream()
+            .filter(metric -> metric.getName().equals(name))
+            .map(AbstractMetricEntry::getValue)
+            .findFirst()
+            .orElse(null);
+    }
+
+    private URI records(RunContext runContext, int count) throws Exception {
+        File tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+        try (OutputStream output = new FileOutputStream(tempFile)) {
+            for (int i = 0; i < count; i++) {
+                FileSerde.write(output, Map.of("objectID", "stand_in_" + i, "name", "Stand-in T-shirt " + i));
+            }
+        }
+
+        return runContext.storage().putFile(tempFile);
+    }
+}
@@ -0,0 +1,160 @@
+package io.kestra.plugin.algolia;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class ConfigureTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    private RunContext getRunContext() {
+        return runContextFactory.of(
+            Map.of(
+                "execution", ImmutableMap.of("id", "#12345", "flowId", "algolia-configure-test", "namespace", "company.team"),
+                "duration", Duration.ofMillis(123456)
+            )
+        );
+    }
+
+    @Test
+    void onlySendChanges() throws Exception {
+        RunContext runContext = getRunContext();
+
+        try (AlgoliaStandIn standIn = new AlgoliaStandIn()) {
+            URI synonyms = this.file(runContext, List.of(
+                Map.of("objectID", "tshirt", "type", "synonym", "synonyms", List.of("t-shirt", "tee")),
+                Map.of("objectID", "phone", "type", "onewaysynonym", "input", "phone", "synonyms", List.of("smartphone"))
+            ));
+            URI rules = this.file(runContext, List.of(
+                Map.of(
+                    "objectID", "hide-discontinued",
+                    "description", "Hide a discontinued product",
+                    "consequence", Map.of("hide", List.of(Map.of("objectID", "discontinued")))
+                )
+            ));
+
+            Configure.ConfigureBuilder<?, ?> builder = Configure.builder()
+                .applicationId(Property.ofValue("APP_ID"))
+                .apiKey(Property.ofValue("API_KEY"))
+                .hosts(Property.ofValue(List.of(standIn.url())))
+                .indexName(Property.ofValue("products"))
+                .settings(Property.ofValue(Map.of("searchableAttributes", List.of("name", "brand"), "hitsPerPage", 30)))
+                .synonyms(Property.ofValue(synonyms.toString()))
+                .rules(Property.ofValue(rules.toString()))
+                .waitForIndexing(Property.ofValue(true));
+
+            Configure.Output first = builder.build().run(runContext);
+
+            assertThat(first.getSettingsUpdated(), containsInAnyOrder("searchableAttributes", "hitsPerPage"));
+            assertThat(first.getSynonymsSaved(), is(2L));
+            assertThat(first.getRulesSaved(), is(1L));
+            assertThat(standIn.synonyms("products").keySet(), containsInAnyOrder("tshirt", "phone"));
+            assertThat(standIn.rules("products").keySet(), contains("hide-discontinued"));
+            assertThat(standIn.settings("products").get("hitsPerPage"), is(30));
+
+            // the same configuration again is a no-op
+            int writes = standIn.configWrites();
+            Configure.Output second = builder.build().run(runContext);
+
+            assertThat(second.getSettingsUpdated(), empty());
+            assertThat(second.getSynonymsSaved(), is(0L));
+            assertThat(second.getSynonymsUnchanged(), is(2L));
+            assertThat(second.getRulesUnchanged(), is(1L));
+            assertThat(second.getTaskIds(), empty());
+            assertThat(standIn.configWrites(), is(writes));
+
+            // one changed setting and synonym, one synonym and the rule dropped: one request each, replacing the whole set
+            writes = standIn.configWrites();
+            URI changed = this.file(runContext, List.of(
+                Map.of("objectID", "tshirt", "type", "synonym", "synonyms", List.of("t-shirt", "tee", "tshirt"))
+            ));
+
+            Configure.Output third = builder
+                .settings(Property.ofValue(Map.of("searchableAttributes", List.of("name", "brand"), "hitsPerPage", 50)))
+                .synonyms(Property.ofValue(changed.toString()))
+                .rules(Property.ofValue(this.file(runContext, List.of()).toString()))
+                .deleteMissing(Property.ofValue(true))
+                .build()
+                .run(runContext);
+
+            assertThat(third.getSettingsUpdated(), contains("hitsPerPage"));
+            assertThat(third.getSynonymsSaved(), is(1L));
+            assertThat(third.getSynonymsDeleted(), is(1L));
+            assertThat(third.getRulesDeleted(), is(1L));
+            assertThat(third.getTaskIds(), hasSize(3));
+            assertThat(standIn.configWrites(), is(writes + 3));
+            assertThat(standIn.synonyms("products").keySet(), contains("tshirt"));
+            assertThat(standIn.rules("products"), anEmptyMap());
+        }
+    }
+
+    @Test
+    void resaveDefinitionWithRemovedAttribute() throws Exception {
+        RunContext runContext = getRunContext();
+
+        try (AlgoliaStandIn standIn = new AlgoliaStandIn()) {
+            Map<String, Object> consequence = Map.of("hide", List.of(Map.of("objectID", "discontinued")));
+            URI described = this.file(runContext, List.of(
+                Map.of("objectID", "hide-discontinued", "description", "Hide a discontinued product", "consequence", consequence)
+            ));
+
+            Configure.ConfigureBuilder<?, ?> builder = Configure.builder()
+                .applicationId(Property.ofValue("APP_ID"))
+                .apiKey(Property.ofValue("API_KEY"))
+                .hosts(Property.ofValue(List.of(standIn.url())))
+                .indexName(Property.ofValue("products"))
+                .rules(Property.ofValue(described.toString()));
+
+            assertThat(builder.build().run(runContext).getRulesSaved(), is(1L));
+
+            // the description is only removed: saving replaces the whole rule, so it must be sent again
+            URI undescribed = this.file(runContext, List.of(
+                Map.of("objectID", "hide-discontinued", "consequence", consequence)
+            ));
+
+            Configure.Output removed = builder
+                .rules(Property.ofValue(undescribed.toString()))
+                .build()
+                .run(runContext);
+
+            assertThat(removed.getRulesSaved(), is(1L));
+            assertThat(removed.getRulesUnchanged(), is(0L));
+            assertThat(standIn.rules("products").get("hide-discontinued"), not(hasKey("description")));
+
+            // and is unchanged afterwards
+            assertThat(builder.build().run(runContext).getRulesUnchanged(), is(1L));
+        }
+    }
+
+    private URI file(RunContext runContext, List<Map<String, Object>> rows) throws Exception {
+        File tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+        try (OutputStream output = new FileOutputStream(tempFile)) {
+            for (Map<String, Object> row : rows) {
+                FileSerde.write(output, row);
+            }
+        }
+
+        return runContext.storage().putFile(tempFile);
+    }
+}
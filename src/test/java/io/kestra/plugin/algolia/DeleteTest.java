@@ -74,6 +74,42 @@ class DeleteTest {
         assertThat(deleteOut.getObjectIds(), hasItem(objectId));
     }
 
+    @Test
+    void shouldDeleteByFilter() throws Exception {
+        RunContext runContext = getRunContext();
+        String indexName = "test_products";
+
+        Index indexTask = Index.builder()
+            .applicationId(Property.ofValue(getAppId()))
+            .apiKey(Property.ofValue(getApiKey()))
+            .indexName(Property.ofValue(indexName))
+            .objects(
+                Property.ofValue(
+                    List.of(
+                        Map.of(
+                            "objectID", "prod_delete_by_001",
+                            "name", "Delete By T-shirt",
+                            "stale", 1
+                        )
+                    )
+                )
+            )
+            .build();
+
+        indexTask.run(runContext);
+
+        Delete deleteTask = Delete.builder()
+            .applicationId(Property.ofValue(getAppId()))
+            .apiKey(Property.ofValue(getApiKey()))
+            .indexName(Property.ofValue(indexName))
+            .deleteBy(Property.ofValue(Map.of("numericFilters", List.of("stale = 1"))))
+            .build();
+
+        Delete.Output deleteOut = deleteTask.run(runContext);
+
+        assertThat(deleteOut.getTaskIds(), hasSize(1));
+    }
+
     protected static boolean canNotBeEnabled() {
         return Strings.isNullOrEmpty(getApiKey()) || Strings.isNullOrEmpty(getAppId());
     }
@@ -0,0 +1,106 @@
+package io.kestra.plugin.algolia;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.JacksonMapper;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+class ExportTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    private RunContext getRunContext() {
+        return runContextFactory.of(
+            Map.of(
+                "execution", ImmutableMap.of("id", "#12345", "flowId", "algolia-export-test", "namespace", "company.team"),
+                "duration", Duration.ofMillis(123456)
+            )
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportPartitionsToGzippedJsonLines() throws Exception {
+        RunContext runContext = getRunContext();
+
+        try (AlgoliaStandIn standIn = new AlgoliaStandIn()) {
+            List<Map<String, Object>> records = new ArrayList<>();
+            for (int i = 0; i < 2500; i++) {
+                records.add(Map.of("objectID", "export_" + i, "name", "T-shirt " + i, "color", i % 2 == 0 ? "red" : "blue"));
+            }
+            standIn.put("products", records);
+
+            Export task = Export.builder()
+                .applicationId(Property.ofValue("APP_ID"))
+                .apiKey(Property.ofValue("API_KEY"))
+                .hosts(Property.ofValue(List.of(standIn.url())))
+                .indexName(Property.ofValue("products"))
+                .attributesToRetrieve(Property.ofValue(List.of("name")))
+                .partitions(Property.ofValue(List.of("color:red", "color:blue")))
+                .format(Property.ofValue(Export.Format.JSONL))
+                .compression(Property.ofValue(Export.Compression.GZIP))
+                .build();
+
+            Export.Output output = task.run(runContext);
+
+            assertThat(output.getSize(), is(2500L));
+
+            List<Map<String, Object>> exported = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(runContext.storage().getFile(output.getUri())), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    exported.add(JacksonMapper.ofJson().readValue(line, Map.class));
+                }
+            }
+
+            assertThat(exported, hasSize(2500));
+            assertThat(exported.getFirst().keySet(), containsInAnyOrder("objectID", "name"));
+            // partitions are concatenated in order: every red record (even index) comes before the blue ones
+            for (int i = 0; i < 2500; i++) {
+                int number = Integer.parseInt(((String) exported.get(i).get("objectID")).substring("export_".length()));
+                assertThat(number % 2, is(i < 1250 ? 0 : 1));
+            }
+        }
+    }
+
+    @Test
+    void rejectConcurrencyBelowOne() throws Exception {
+        RunContext runContext = getRunContext();
+
+        try (AlgoliaStandIn standIn = new AlgoliaStandIn()) {
+            for (int concurrency : new int[]{0, -1}) {
+                Export task = Export.builder()
+                    .applicationId(Property.ofValue("APP_ID"))
+                    .apiKey(Property.ofValue("API_KEY"))
+                    .hosts(Property.ofValue(List.of(standIn.url())))
+                    .indexName(Property.ofValue("products"))
+                    .concurrency(Property.ofValue(concurrency))
+                    .build();
+
+                IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> task.run(runContext));
+                assertThat(e.getMessage(), containsString("concurrency"));
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.kestra.plugin.algolia;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class GetObjectsTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    private RunContext getRunContext() {
+        return runContextFactory.of(
+            Map.of(
+                "execution", ImmutableMap.of("id", "#12345", "flowId", "algolia-get-objects-test", "namespace", "company.team"),
+                "duration", Duration.ofMillis(123456)
+            )
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getObjectsInOrder() throws Exception {
+        RunContext runContext = getRunContext();
+
+        try (AlgoliaStandIn standIn = new AlgoliaStandIn()) {
+            List<Map<String, Object>> records = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                records.add(Map.of("objectID", "get_" + i, "name", "T-shirt " + i, "price", i));
+            }
+            standIn.put("products", records);
+
+            List<String> objectIds = new ArrayList<>();
+            for (int i = 99; i >= 0; i -= 3) {
+                objectIds.add("get_" + i);
+            }
+            objectIds.add("unknown");
+
+            GetObjects task = GetObjects.builder()
+                .applicationId(Property.ofValue("APP_ID"))
+                .apiKey(Property.ofValue("API_KEY"))
+                .hosts(Property.ofValue(List.of(standIn.url())))
+                .indexName(Property.ofValue("products"))
+                .objectIds(Property.ofValue(objectIds))
+                .attributesToRetrieve(Property.ofValue(List.of("name")))
+                .chunkSize(Property.ofValue(5))
+                .concurrency(Property.ofValue(3))
+                .build();
+
+            GetObjects.Output output = task.run(runContext);
+
+            assertThat(output.getRequested(), is(35L));
+            assertThat(output.getSize(), is(34L));
+            assertThat(output.getMissing(), is(1L));
+
+            List<Object> rows;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(output.getUri())))) {
+                rows = FileSerde.readAll(reader).collectList().block();
+            }
+
+            assertThat(rows, hasSize(34));
+            for (int i = 0; i < rows.size(); i++) {
+                Map<String, Object> row = (Map<String, Object>) rows.get(i);
+                assertThat(row.get("objectID"), is(objectIds.get(i)));
+                assertThat(row.containsKey("price"), is(false));
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package io.kestra.plugin.algolia;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.IdUtils;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class IncrementalStateTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    private RunContext getRunContext() {
+        return runContextFactory.of(
+            Map.of(
+                "flow", ImmutableMap.of("id", "algolia-incremental-test", "namespace", "company.team"),
+                "execution", ImmutableMap.of("id", "#12345", "flowId", "algolia-incremental-test", "namespace", "company.team"),
+                "duration", Duration.ofMillis(123456)
+            )
+        );
+    }
+
+    @Test
+    void detectChangesAndMissingRecords() throws Exception {
+        RunContext runContext = getRunContext();
+        String key = IdUtils.create();
+
+        try (IncrementalState state = IncrementalState.load(runContext, key)) {
+            for (int i = 0; i < 5; i++) {
+                IncrementalState.Lookup lookup = state.lookup("id_" + i, Map.of("objectID", "id_" + i, "price", i));
+                assertThat(lookup.changed(), is(true));
+                state.keep(lookup);
+            }
+
+            assertThat(state.save(), is(5L));
+        }
+
+        try (IncrementalState state = IncrementalState.load(runContext, key)) {
+            // attribute order does not matter
+            assertThat(state.lookup("id_0", Map.of("price", 0, "objectID", "id_0")).changed(), is(false));
+            assertThat(state.lookup("id_1", Map.of("objectID", "id_1", "price", 100)).changed(), is(true));
+            assertThat(state.lookup("id_9", Map.of("objectID", "id_9", "price", 9)).changed(), is(true));
+
+            List<String> missing = new ArrayList<>();
+            state.forEachMissing(missing::add);
+
+            assertThat(missing, containsInAnyOrder("id_2", "id_3", "id_4"));
+        }
+    }
+
+    @Test
+    void mergeSpilledRuns() throws Exception {
+        RunContext runContext = getRunContext();
+        String key = IdUtils.create();
+
+        try (IncrementalState state = IncrementalState.load(runContext, key, 10)) {
+            for (int i = 0; i < 95; i++) {
+                state.keep(state.lookup("id_" + i, Map.of("objectID", "id_" + i, "version", 1)));
+            }
+
+            // duplicates spread over several run files: the last occurrence wins
+            for (int i = 0; i < 20; i++) {
+                state.keep(state.lookup("id_" + i, Map.of("objectID", "id_" + i, "version", 2)));
+            }
+
+            assertThat(state.save(), is(95L));
+        }
+
+        try (IncrementalState state = IncrementalState.load(runContext, key, 10)) {
+            for (int i = 0; i < 95; i++) {
+                int version = i < 20 ? 2 : 1;
+                assertThat(state.lookup("id_" + i, Map.of("objectID", "id_" + i, "version", version)).changed(), is(false));
+            }
+
+            List<String> missing = new ArrayList<>();
+            state.forEachMissing(missing::add);
+
+            assertThat(missing, empty());
+        }
+    }
+
+    @Test
+    void recordsNotKeptAreSentAgain() throws Exception {
+        RunContext runContext = getRunContext();
+        String key = IdUtils.create();
+
+        try (IncrementalState state = IncrementalState.load(runContext, key)) {
+            state.keep(state.lookup("kept", Map.of("objectID", "kept")));
+            // e.g. an oversize record skipped by the writer
+            state.keepStale(state.lookup("skipped", Map.of("objectID", "skipped")));
+
+            assertThat(state.save(), is(2L));
+        }
+
+        try (IncrementalState state = IncrementalState.load(runContext, key)) {
+            assertThat(state.lookup("kept", Map.of("objectID", "kept")).changed(), is(false));
+            assertThat(state.lookup("skipped", Map.of("objectID", "skipped")).changed(), is(true));
+
+            // still in the state, so never reported as missing
+            List<String> missing = new ArrayList<>();
+            state.forEachMissing(missing::add);
+            assertThat(missing, empty());
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package io.kestra.plugin.algolia;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
@@ -14,6 +18,7 @@ import io.kestra.core.junit.annotations.KestraTest;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
 
 import jakarta.inject.Inject;
 
@@ -61,11 +66,37 @@ class IndexTest {
 
         Index.Output output = task.run(runContext);
 
-        assertThat(output.getResult(), notNullValue());
-        assertThat(output.getResult(), hasKey("objectIDs"));
+        assertThat(output.getCount(), is(1L));
+        assertThat(output.getBatches(), is(1));
+        assertThat(output.getTaskIds(), hasSize(1));
+    }
+
+    @Test
+    void indexFromStorage() throws Exception {
+        RunContext runContext = getRunContext();
+        String indexName = "test_products";
+
+        File tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+        try (OutputStream output = new FileOutputStream(tempFile)) {
+            for (int i = 0; i < 25; i++) {
+                FileSerde.write(output, Map.of("objectID", "index_from_" + i, "name", "Streamed T-shirt " + i));
+            }
+        }
+        URI uri = runContext.storage().putFile(tempFile);
+
+        Index task = Index.builder()
+            .applicationId(Property.ofValue(getAppId()))
+            .apiKey(Property.ofValue(getApiKey()))
+            .indexName(Property.ofValue(indexName))
+            .from(Property.ofValue(uri.toString()))
+            .chunkSize(Property.ofValue(10))
+            .build();
+
+        Index.Output output = task.run(runContext);
 
-        List<String> objectIds = (List<String>) output.getResult().get("objectIDs");
-        assertThat(objectIds, hasItem("index_001"));
+        assertThat(output.getCount(), is(25L));
+        assertThat(output.getBatches(), is(3));
+        assertThat(output.getTaskIds(), hasSize(3));
     }
 
     protected static boolean canNotBeEnabled() {
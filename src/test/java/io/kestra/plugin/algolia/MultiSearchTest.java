@@ -0,0 +1,97 @@
+package io.kestra.plugin.algolia;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.assertj.core.util.Strings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DisabledIf(
+    value = "canNotBeEnabled",
+    disabledReason = "Disabled for CI/CD as requires secrets data: apiKey, appId"
+)
+@KestraTest
+class MultiSearchTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    private RunContext getRunContext() {
+        return runContextFactory.of(
+            Map.of(
+                "execution", ImmutableMap.of("id", "#12345", "flowId", "algolia-multi-search-test", "namespace", "company.team"),
+                "duration", Duration.ofMillis(123456)
+            )
+        );
+    }
+
+    @Test
+    void shouldRunSeveralQueries() throws Exception {
+        RunContext runContext = getRunContext();
+        String indexName = "test_products";
+
+        Index indexTask = Index.builder()
+            .applicationId(Property.ofValue(getAppId()))
+            .apiKey(Property.ofValue(getApiKey()))
+            .indexName(Property.ofValue(indexName))
+            .objects(
+                Property.ofValue(
+                    List.of(
+                        Map.of(
+                            "objectID", "multi_search_001",
+                            "name", "Multi Search T-shirt"
+                        )
+                    )
+                )
+            )
+            .build();
+
+        indexTask.run(runContext);
+
+        MultiSearch task = MultiSearch.builder()
+            .applicationId(Property.ofValue(getAppId()))
+            .apiKey(Property.ofValue(getApiKey()))
+            .queries(List.of(
+                MultiSearch.Query.builder()
+                    .indexName(Property.ofValue(indexName))
+                    .params(Property.ofValue(Map.of("query", "Multi Search T-shirt")))
+                    .build(),
+                MultiSearch.Query.builder()
+                    .indexName(Property.ofValue(indexName))
+                    .params(Property.ofValue(Map.of("query", "T-shirt", "hitsPerPage", 1)))
+                    .build()
+            ))
+            .build();
+
+        MultiSearch.Output output = task.run(runContext);
+
+        assertThat(output.getResults(), hasSize(2));
+        assertThat(output.getResults().getFirst().getIndexName(), is(indexName));
+        assertThat(output.getResults().get(1).getHits(), hasSize(lessThanOrEqualTo(1)));
+    }
+
+    protected static boolean canNotBeEnabled() {
+        return Strings.isNullOrEmpty(getApiKey()) || Strings.isNullOrEmpty(getAppId());
+    }
+
+    protected static String getApiKey() {
+        return System.getenv("ALGOLIA_API_KEY");
+    }
+
+    protected static String getAppId() {
+        return System.getenv("ALGOLIA_APP_ID");
+    }
+}
@@ -0,0 +1,76 @@
+package io.kestra.plugin.algolia;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class ObjectIdSorterTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    private RunContext getRunContext() {
+        return runContextFactory.of(
+            Map.of(
+                "execution", ImmutableMap.of("id", "#12345", "flowId", "algolia-sorter-test", "namespace", "company.team"),
+                "duration", Duration.ofMillis(123456)
+            )
+        );
+    }
+
+    @Test
+    void mergeRunsOverSeveralLevels() throws Exception {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            expected.add(String.format("id_%04d", i));
+        }
+
+        // runs of 3 IDs: more runs than the fan-in, so they are merged in two levels
+        try (ObjectIdSorter sorter = new ObjectIdSorter(getRunContext(), 3)) {
+            for (int i = expected.size() - 1; i >= 0; i--) {
+                sorter.add(expected.get(i));
+                // duplicates across runs are dropped
+                if (i % 10 == 0) {
+                    sorter.add(expected.get(i));
+                }
+            }
+
+            // read twice, as Sync does to count then delete the orphans
+            assertThat(this.read(sorter), is(expected));
+            assertThat(this.read(sorter), is(expected));
+        }
+    }
+
+    @Test
+    void readNothing() throws Exception {
+        try (ObjectIdSorter sorter = new ObjectIdSorter(getRunContext())) {
+            assertThat(this.read(sorter), empty());
+        }
+    }
+
+    private List<String> read(ObjectIdSorter sorter) throws Exception {
+        List<String> ids = new ArrayList<>();
+        try (ObjectIdSorter.Cursor cursor = sorter.sorted()) {
+            String id;
+            while ((id = cursor.next()) != null) {
+                ids.add(id);
+            }
+        }
+
+        return ids;
+    }
+}
@@ -0,0 +1,100 @@
+package io.kestra.plugin.algolia;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.assertj.core.util.Strings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DisabledIf(
+    value = "canNotBeEnabled",
+    disabledReason = "Disabled for CI/CD as requires secrets data: apiKey, appId"
+)
+@KestraTest
+class PartialUpdateTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    private RunContext getRunContext() {
+        return runContextFactory.of(
+            Map.of(
+                "execution", ImmutableMap.of("id", "#12345", "flowId", "algolia-partial-update-test", "namespace", "company.team"),
+                "duration", Duration.ofMillis(123456)
+            )
+        );
+    }
+
+    @Test
+    void shouldPartiallyUpdateRecord() throws Exception {
+        RunContext runContext = getRunContext();
+        String indexName = "test_products";
+        String objectId = "partial_update_001";
+
+        Index indexTask = Index.builder()
+            .applicationId(Property.ofValue(getAppId()))
+            .apiKey(Property.ofValue(getApiKey()))
+            .indexName(Property.ofValue(indexName))
+            .objects(
+                Property.ofValue(
+                    List.of(
+                        Map.of(
+                            "objectID", objectId,
+                            "name", "Partial T-shirt",
+                            "stock", 10
+                        )
+                    )
+                )
+            )
+            .build();
+
+        indexTask.run(runContext);
+
+        PartialUpdate task = PartialUpdate.builder()
+            .applicationId(Property.ofValue(getAppId()))
+            .apiKey(Property.ofValue(getApiKey()))
+            .indexName(Property.ofValue(indexName))
+            .createIfNotExists(Property.ofValue(false))
+            .objects(
+                Property.ofValue(
+                    List.of(
+                        Map.of(
+                            "objectID", objectId,
+                            "stock", Map.of("_operation", "Decrement", "value", 1)
+                        )
+                    )
+                )
+            )
+            .build();
+
+        PartialUpdate.Output output = task.run(runContext);
+
+        assertThat(output.getCount(), is(1L));
+        assertThat(output.getTaskIds(), hasSize(1));
+    }
+
+    protected static boolean canNotBeEnabled() {
+        return Strings.isNullOrEmpty(getApiKey()) || Strings.isNullOrEmpty(getAppId());
+    }
+
+    protected static String getApiKey() {
+        return System.getenv("ALGOLIA_API_KEY");
+    }
+
+    protected static String getAppId() {
+        return System.getenv("ALGOLIA_APP_ID");
+    }
+}
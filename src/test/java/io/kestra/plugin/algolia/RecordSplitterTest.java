@@ -0,0 +1,79 @@
+package io.kestra.plugin.algolia;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class RecordSplitterTest {
+    @Test
+    void cutMultibyteWordsBetweenCodePoints() {
+        RecordSplitter splitter = new RecordSplitter("content", 5, Index.Split.Boundary.PARAGRAPH, "parentObjectID");
+
+        // 4 bytes each in UTF-8, 2 chars each in Java
+        String emoji = "😀";
+        List<String> chunks = splitter.chunks("a" + emoji.repeat(3));
+
+        assertThat(chunks, contains("a" + emoji, emoji, emoji));
+
+        String accents = "é".repeat(7);
+        for (String chunk : splitter.chunks(accents)) {
+            assertThat(chunk.getBytes(StandardCharsets.UTF_8).length, lessThanOrEqualTo(5));
+            // never cut inside a code point
+            assertThat(new String(chunk.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8), is(chunk));
+        }
+        assertThat(String.join("", splitter.chunks(accents)), is(accents));
+    }
+
+    @Test
+    void cutWordsOverTheLimit() {
+        RecordSplitter splitter = new RecordSplitter("content", 10, Index.Split.Boundary.PARAGRAPH, "parentObjectID");
+
+        assertThat(
+            splitter.chunks("see https://example.com/abc now"),
+            contains("see", "https://ex", "ample.com/", "abc now")
+        );
+    }
+
+    @Test
+    void packSentencesAcrossParagraphs() {
+        String text = "Alpha one.\n\nBeta two. Gamma three.";
+
+        // the second paragraph fits in a chunk on its own, so it is kept whole
+        RecordSplitter paragraphs = new RecordSplitter("content", 30, Index.Split.Boundary.PARAGRAPH, "parentObjectID");
+        assertThat(paragraphs.chunks(text), contains("Alpha one.", "Beta two. Gamma three."));
+
+        // its first sentence fills the end of the previous chunk instead
+        RecordSplitter sentences = new RecordSplitter("content", 30, Index.Split.Boundary.SENTENCE, "parentObjectID");
+        assertThat(sentences.chunks(text), contains("Alpha one.\n\nBeta two.", "Gamma three."));
+    }
+
+    @Test
+    void keepShortTextInOneChunk() {
+        RecordSplitter splitter = new RecordSplitter("content", 100, Index.Split.Boundary.PARAGRAPH, "parentObjectID");
+
+        assertThat(splitter.chunks(""), contains(""));
+        assertThat(splitter.chunks("  One paragraph.\n\nAnother one.  "), contains("One paragraph.\n\nAnother one."));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void renameEveryRecordWithTheAttribute() {
+        RecordSplitter splitter = new RecordSplitter("content", 100, Index.Split.Boundary.PARAGRAPH, "parentObjectID");
+
+        List<Map<String, Object>> split = (List<Map<String, Object>>) splitter.split(Map.of("objectID", "doc", "content", "Short."));
+        assertThat(split, hasSize(1));
+        assertThat(split.getFirst().get("objectID"), is("doc-0"));
+        assertThat(split.getFirst().get("parentObjectID"), is("doc"));
+
+        Map<String, Object> untouched = Map.of("objectID", "other", "content", 42);
+        assertThat(splitter.split(untouched), contains(untouched));
+
+        assertThat(splitter.records(), is(1L));
+        assertThat(splitter.chunks(), is(1L));
+    }
+}
@@ -0,0 +1,78 @@
+package io.kestra.plugin.algolia;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.assertj.core.util.Strings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DisabledIf(
+    value = "canNotBeEnabled",
+    disabledReason = "Disabled for CI/CD as requires secrets data: apiKey, appId"
+)
+@KestraTest
+class ReplaceAllObjectsTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    private RunContext getRunContext() {
+        return runContextFactory.of(
+            Map.of(
+                "execution", ImmutableMap.of("id", "#12345", "flowId", "algolia-replace-all-objects-test", "namespace", "company.team"),
+                "duration", Duration.ofMillis(123456)
+            )
+        );
+    }
+
+    @Test
+    void shouldReplaceAllRecords() throws Exception {
+        RunContext runContext = getRunContext();
+
+        ReplaceAllObjects task = ReplaceAllObjects.builder()
+            .applicationId(Property.ofValue(getAppId()))
+            .apiKey(Property.ofValue(getApiKey()))
+            .indexName(Property.ofValue("test_replace_all"))
+            .objects(
+                Property.ofValue(
+                    List.of(
+                        Map.of("objectID", "replace_001", "name", "Replaced T-shirt"),
+                        Map.of("objectID", "replace_002", "name", "Replaced Shoes")
+                    )
+                )
+            )
+            .chunkSize(Property.ofValue(1))
+            .build();
+
+        ReplaceAllObjects.Output output = task.run(runContext);
+
+        assertThat(output.getCount(), is(2L));
+        assertThat(output.getTaskIds(), hasSize(2));
+        assertThat(output.getMoveTaskId(), notNullValue());
+    }
+
+    protected static boolean canNotBeEnabled() {
+        return Strings.isNullOrEmpty(getApiKey()) || Strings.isNullOrEmpty(getAppId());
+    }
+
+    protected static String getApiKey() {
+        return System.getenv("ALGOLIA_API_KEY");
+    }
+
+    protected static String getAppId() {
+        return System.getenv("ALGOLIA_APP_ID");
+    }
+}
@@ -12,6 +12,7 @@ import com.google.common.collect.ImmutableMap;
 
 import io.kestra.core.junit.annotations.KestraTest;
 import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.common.FetchType;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.runners.RunContextFactory;
 
@@ -75,6 +76,24 @@ class SearchTest {
         assertThat(searchOut.getNbHits(), greaterThanOrEqualTo(1));
     }
 
+    @Test
+    void shouldStoreAllHits() throws Exception {
+        RunContext runContext = getRunContext();
+
+        Search searchTask = Search.builder()
+            .applicationId(Property.ofValue(getAppId()))
+            .apiKey(Property.ofValue(getApiKey()))
+            .indexName(Property.ofValue("test_products"))
+            .fetchType(Property.ofValue(FetchType.STORE))
+            .build();
+
+        Search.Output searchOut = searchTask.run(runContext);
+
+        assertThat(searchOut.getUri(), notNullValue());
+        assertThat(searchOut.getHits(), nullValue());
+        assertThat(searchOut.getSize(), greaterThanOrEqualTo(1L));
+    }
+
     protected static boolean canNotBeEnabled() {
         return Strings.isNullOrEmpty(getApiKey()) || Strings.isNullOrEmpty(getAppId());
     }
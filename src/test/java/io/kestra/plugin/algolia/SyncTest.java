@@ -0,0 +1,120 @@
+package io.kestra.plugin.algolia;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+class SyncTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    private RunContext getRunContext() {
+        return runContextFactory.of(
+            Map.of(
+                "execution", ImmutableMap.of("id", "#12345", "flowId", "algolia-sync-test", "namespace", "company.team"),
+                "duration", Duration.ofMillis(123456)
+            )
+        );
+    }
+
+    @Test
+    void upsertSourceAndDeleteOrphans() throws Exception {
+        RunContext runContext = getRunContext();
+
+        try (AlgoliaStandIn standIn = new AlgoliaStandIn()) {
+            List<Map<String, Object>> indexed = new ArrayList<>();
+            for (int i = 0; i < 1500; i++) {
+                indexed.add(Map.of("objectID", "sync_" + i, "name", "Old T-shirt " + i));
+            }
+            standIn.put("products", indexed);
+
+            List<Map<String, Object>> source = new ArrayList<>();
+            for (int i = 1000; i < 2000; i++) {
+                source.add(Map.of("objectID", "sync_" + i, "name", "New T-shirt " + i));
+            }
+
+            Sync task = Sync.builder()
+                .applicationId(Property.ofValue("APP_ID"))
+                .apiKey(Property.ofValue("API_KEY"))
+                .hosts(Property.ofValue(List.of(standIn.url())))
+                .indexName(Property.ofValue("products"))
+                .objects(Property.ofValue(source))
+                .chunkSize(Property.ofValue(250))
+                .build();
+
+            Sync.Output output = task.run(runContext);
+
+            assertThat(output.getUpserted(), is(1000L));
+            assertThat(output.getDeleted(), is(1000L));
+            assertThat(output.getCount(), is(2000L));
+
+            Map<String, Map<String, Object>> records = standIn.records("products");
+            assertThat(records.size(), is(1000));
+            assertThat(records.containsKey("sync_999"), is(false));
+            assertThat(records.get("sync_1500").get("name"), is("New T-shirt 1500"));
+        }
+    }
+
+    @Test
+    void refuseToDeleteOverLimits() throws Exception {
+        RunContext runContext = getRunContext();
+
+        try (AlgoliaStandIn standIn = new AlgoliaStandIn()) {
+            List<Map<String, Object>> indexed = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                indexed.add(Map.of("objectID", "sync_" + i, "name", "Old T-shirt " + i));
+            }
+            standIn.put("products", indexed);
+
+            Sync.SyncBuilder<?, ?> builder = Sync.builder()
+                .applicationId(Property.ofValue("APP_ID"))
+                .apiKey(Property.ofValue("API_KEY"))
+                .hosts(Property.ofValue(List.of(standIn.url())))
+                .indexName(Property.ofValue("products"));
+
+            // an empty source would wipe the index
+            IllegalStateException empty = assertThrows(
+                IllegalStateException.class,
+                () -> builder.objects(Property.ofValue(List.of())).build().run(runContext)
+            );
+            assertThat(empty.getMessage(), containsString("would delete 100 of the 100"));
+            assertThat(standIn.records("products").size(), is(100));
+
+            // a truncated source is upserted but nothing is deleted
+            List<Map<String, Object>> truncated = List.of(Map.of("objectID", "sync_0", "name", "New T-shirt 0"));
+            assertThrows(
+                IllegalStateException.class,
+                () -> builder.objects(Property.ofValue(truncated)).maxDeleteRatio(Property.ofValue(1.0)).maxDeletes(Property.ofValue(50L)).build().run(runContext)
+            );
+            assertThat(standIn.records("products").size(), is(100));
+            assertThat(standIn.records("products").get("sync_0").get("name"), is("New T-shirt 0"));
+
+            Sync.Output allowed = builder
+                .objects(Property.ofValue(truncated))
+                .maxDeleteRatio(Property.ofValue(1.0))
+                .maxDeletes(Property.ofValue(99L))
+                .build()
+                .run(runContext);
+
+            assertThat(allowed.getDeleted(), is(99L));
+            assertThat(standIn.records("products").keySet(), contains("sync_0"));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.kestra.plugin.algolia;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenBucketTest {
+    @Test
+    void shareBucketPerApplicationKindAndRate() {
+        TokenBucket bucket = TokenBucket.of("TOKEN_BUCKET_APP", "records", 100);
+
+        assertThat(TokenBucket.of("TOKEN_BUCKET_APP", "records", 100), sameInstance(bucket));
+        assertThat(TokenBucket.of("TOKEN_BUCKET_APP", "requests", 100), not(sameInstance(bucket)));
+        assertThat(TokenBucket.of("OTHER_APP", "records", 100), not(sameInstance(bucket)));
+
+        // another task with another rate does not change the rate of this one
+        assertThat(TokenBucket.of("TOKEN_BUCKET_APP", "records", 1), not(sameInstance(bucket)));
+    }
+
+    @Test
+    void sendWithinRate() throws Exception {
+        TokenBucket bucket = TokenBucket.of("TOKEN_BUCKET_APP", "within_rate", 1000);
+
+        long start = System.nanoTime();
+        bucket.acquire(500);
+        bucket.acquire(500);
+
+        assertThat(System.nanoTime() - start, lessThan(500_000_000L));
+    }
+
+    @Test
+    void evictIdleBuckets() {
+        TokenBucket bucket = TokenBucket.of("EVICTED_APP", "records", 100);
+
+        // used recently
+        TokenBucket.evictIdle(Duration.ofMinutes(5));
+        assertThat(TokenBucket.of("EVICTED_APP", "records", 100), sameInstance(bucket));
+
+        TokenBucket.evictIdle(Duration.ZERO);
+        assertThat(TokenBucket.size(), is(0));
+        assertThat(TokenBucket.of("EVICTED_APP", "records", 100), not(sameInstance(bucket)));
+    }
+
+    @Test
+    void rejectNonPositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> TokenBucket.of("TOKEN_BUCKET_APP", "records", 0));
+        assertThrows(IllegalArgumentException.class, () -> TokenBucket.of("TOKEN_BUCKET_APP", "records", -1));
+    }
+}
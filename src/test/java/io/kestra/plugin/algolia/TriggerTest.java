@@ -0,0 +1,142 @@
+package io.kestra.plugin.algolia;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+class TriggerTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pollPastHighWaterMark() throws Exception {
+        try (AlgoliaStandIn standIn = new AlgoliaStandIn()) {
+            standIn.put("products", List.of(
+                Map.of("objectID", "1", "name", "Red T-shirt", "updatedAt", 100),
+                Map.of("objectID", "2", "name", "Blue T-shirt", "updatedAt", 200)
+            ));
+
+            Trigger trigger = Trigger.builder()
+                .id("watch")
+                .type(Trigger.class.getName())
+                .applicationId(Property.ofValue("APP_ID"))
+                .apiKey(Property.ofValue("API_KEY"))
+                .hosts(Property.ofValue(List.of(standIn.url())))
+                .indexName(Property.ofValue("products"))
+                .attribute(Property.ofValue("updatedAt"))
+                .initialHighWaterMark(Property.ofValue(BigDecimal.ZERO))
+                .stateKey(Property.ofValue("algolia_trigger_" + IdUtils.create()))
+                .build();
+
+            Map.Entry<ConditionContext, io.kestra.core.models.triggers.Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+            Optional<Execution> first = trigger.evaluate(context.getKey(), context.getValue());
+            assertThat(first.isPresent(), is(true));
+            Map<String, Object> firstOutput = first.get().getTrigger().getVariables();
+            assertThat(((List<Object>) firstOutput.get("hits")), hasSize(2));
+            assertThat(new BigDecimal(firstOutput.get("highWaterMark").toString()), comparesEqualTo(new BigDecimal(200)));
+
+            Optional<Execution> empty = trigger.evaluate(context.getKey(), context.getValue());
+            assertThat(empty.isPresent(), is(false));
+
+            standIn.put("products", List.of(Map.of("objectID", "1", "name", "Red T-shirt", "updatedAt", 300)));
+
+            Optional<Execution> second = trigger.evaluate(context.getKey(), context.getValue());
+            assertThat(second.isPresent(), is(true));
+            List<Map<String, Object>> hits = (List<Map<String, Object>>) second.get().getTrigger().getVariables().get("hits");
+            assertThat(hits, hasSize(1));
+            assertThat(hits.getFirst().get("objectID"), is("1"));
+
+            // indexed after the previous poll with the same value as the mark
+            standIn.put("products", List.of(Map.of("objectID", "3", "name", "Green T-shirt", "updatedAt", 300)));
+
+            Optional<Execution> third = trigger.evaluate(context.getKey(), context.getValue());
+            assertThat(third.isPresent(), is(true));
+            hits = (List<Map<String, Object>>) third.get().getTrigger().getVariables().get("hits");
+            assertThat(hits, hasSize(1));
+            assertThat(hits.getFirst().get("objectID"), is("3"));
+
+            assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void catchLateRecordsWithinOverlap() throws Exception {
+        try (AlgoliaStandIn standIn = new AlgoliaStandIn()) {
+            standIn.put("products", List.of(Map.of("objectID", "1", "name", "Red T-shirt", "updatedAt", 200)));
+
+            Trigger trigger = Trigger.builder()
+                .id("watch")
+                .type(Trigger.class.getName())
+                .applicationId(Property.ofValue("APP_ID"))
+                .apiKey(Property.ofValue("API_KEY"))
+                .hosts(Property.ofValue(List.of(standIn.url())))
+                .indexName(Property.ofValue("products"))
+                .attribute(Property.ofValue("updatedAt"))
+                .initialHighWaterMark(Property.ofValue(BigDecimal.ZERO))
+                .overlap(Property.ofValue(new BigDecimal(100)))
+                .stateKey(Property.ofValue("algolia_trigger_" + IdUtils.create()))
+                .build();
+
+            Map.Entry<ConditionContext, io.kestra.core.models.triggers.Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+            assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(true));
+
+            // written before the last poll but indexed after it, within the overlap: returned once
+            standIn.put("products", List.of(Map.of("objectID", "2", "name", "Blue T-shirt", "updatedAt", 150)));
+
+            Optional<Execution> late = trigger.evaluate(context.getKey(), context.getValue());
+            assertThat(late.isPresent(), is(true));
+            List<Map<String, Object>> hits = (List<Map<String, Object>>) late.get().getTrigger().getVariables().get("hits");
+            assertThat(hits, hasSize(1));
+            assertThat(hits.getFirst().get("objectID"), is("2"));
+
+            assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+
+            // below the overlap: too late to be caught
+            standIn.put("products", List.of(Map.of("objectID", "3", "name", "Green T-shirt", "updatedAt", 50)));
+            assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+        }
+    }
+
+    @Test
+    void requireInitialHighWaterMarkToFetch() throws Exception {
+        try (AlgoliaStandIn standIn = new AlgoliaStandIn()) {
+            Trigger trigger = Trigger.builder()
+                .id("watch")
+                .type(Trigger.class.getName())
+                .applicationId(Property.ofValue("APP_ID"))
+                .apiKey(Property.ofValue("API_KEY"))
+                .hosts(Property.ofValue(List.of(standIn.url())))
+                .indexName(Property.ofValue("products"))
+                .attribute(Property.ofValue("updatedAt"))
+                .stateKey(Property.ofValue("algolia_trigger_" + IdUtils.create()))
+                .build();
+
+            Map.Entry<ConditionContext, io.kestra.core.models.triggers.Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> trigger.evaluate(context.getKey(), context.getValue()));
+            assertThat(e.getMessage(), containsString("initialHighWaterMark"));
+        }
+    }
+}